@@ -0,0 +1,48 @@
+/**
+ * Derived class that represents addition/concatenation, (x + y), in the SILLY language.
+ */
+public class Add extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Add(Expression lhs, Expression rhs) {
+        super(lhs, Token.PLUS, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Add.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the sum of two integers, or the concatenation of two strings or lists.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the resulting value
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() == r.getType()) {
+            if (l.getType() == DataValue.Type.INTEGER) {
+                if (l instanceof IntegerValue && r instanceof IntegerValue) {
+                    long a = l.asLong(), b = r.asLong(), sum = a + b;
+                    if (((a ^ sum) & (b ^ sum)) >= 0) {        // no overflow
+                        return IntegerValue.valueOf(sum);
+                    }
+                }
+                return BigIntegerValue.valueOf(BigIntegerValue.toBigInteger(l).add(BigIntegerValue.toBigInteger(r)));
+            } else if (l.getType() == DataValue.Type.STRING) {
+                return ((StringValue) l).concat((StringValue) r);
+            } else if (l.getType() == DataValue.Type.LIST) {
+                return ((ListValue) l).concat((ListValue) r);
+            }
+        }
+        throw BinaryExpression.mismatch();
+    }
+}
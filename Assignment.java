@@ -6,6 +6,8 @@
 public class Assignment extends Statement {
     private Token vbl;
     private Expression expr;
+    private int depth;
+    private int slot;
     
     /**
      * Reads in a assignment statement from the specified TokenStream.
@@ -17,25 +19,78 @@ public class Assignment extends Statement {
 	        throw new Exception("SYNTAX ERROR: Illegal lhs of assignment statement (" + this.vbl + ")");
         } 
         
-        if (!input.next().toString().equals("gets")) {
+        if (input.next() != Token.GETS) {
 	        throw new Exception("SYNTAX ERROR: Malformed assignment statement (expecting 'gets')");
         } 
 
-        this.expr = new Expression(input);
+        this.expr = Expression.getExpression(input);
+    }
+
+    /**
+     * Constructs an assignment statement from its parts.
+     *   @param vbl the variable being assigned
+     *   @param expr the expression whose value is assigned
+     */
+    public Assignment(Token vbl, Expression expr) {
+        this.vbl = vbl;
+        this.expr = expr;
     }
     
     /**
-     * Executes the current assignment statement.
+     * Binds the variable (and those in the expression) to frame slots.
+     *   @param scopes the scopes visible to this statement
      */
-    public Statement.Status execute() throws Exception {
-    	if (!Interpreter.MEMORY.isDeclared(this.vbl)) {
+    public void resolve(Resolver scopes) throws Exception {
+        this.depth = scopes.depthOf(this.vbl);
+        if (this.depth < 0) {
     		throw new Exception("RUNTIME ERROR: " + this.vbl + " is not declared.");
-    	} 
-        Interpreter.MEMORY.storeValue(this.vbl, this.expr.evaluate());
+        }
+        this.slot = scopes.slotOf(this.vbl, this.depth);
+        this.expr.resolve(scopes);
+    }
+
+    /**
+     * Executes the current assignment statement.
+     *   @param context the state of the running program
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        context.getMemory().storeValue(this.depth, this.slot, this.expr.evaluate(context));
         
         return Statement.Status.OK;
     }
     
+    /**
+     * Accesses the expression being assigned.
+     *   @return the expression
+     */
+    public Expression getExpression() {
+        return this.expr;
+    }
+
+    /**
+     * Accesses the variable being assigned.
+     *   @return the variable token
+     */
+    public Token getVariable() {
+        return this.vbl;
+    }
+
+    /**
+     * Accesses the scope depth of the variable.
+     *   @return the depth (from the Resolver)
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Accesses the frame slot of the variable.
+     *   @return the slot (from the Resolver)
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
     /**
      * Converts the current assignment statement into a String.
      *   @return the String representation of this statement
@@ -0,0 +1,113 @@
+import java.math.BigInteger;
+
+/**
+ * Class that represents an integer value too large to fit in a long.  The
+ * arithmetic operators work on longs and only promote to a BigIntegerValue
+ * when a result overflows; results that fit in a long again are always
+ * IntegerValues, so every integer has exactly one representation.
+ */
+public class BigIntegerValue implements DataValue {
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final BigInteger value;
+
+    /**
+     * Constructs a large integer value.
+     *   @param num the integer being stored (outside the range of a long)
+     */
+    private BigIntegerValue(BigInteger num) {
+        this.value = num;
+    }
+
+    /**
+     * Accesses the integer value for a number of any size.
+     *   @param num the integer being stored
+     *   @return an IntegerValue if num fits in a long, else a BigIntegerValue
+     */
+    public static DataValue valueOf(BigInteger num) {
+        if (num.compareTo(BigIntegerValue.LONG_MIN) >= 0 && num.compareTo(BigIntegerValue.LONG_MAX) <= 0) {
+            return IntegerValue.valueOf(num.longValue());
+        }
+        return new BigIntegerValue(num);
+    }
+
+    /**
+     * Converts an integer value (of either representation) to a BigInteger.
+     *   @param val the integer value
+     *   @return the integer as a BigInteger
+     */
+    public static BigInteger toBigInteger(DataValue val) {
+        if (val instanceof BigIntegerValue) {
+            return ((BigIntegerValue) val).value;
+        }
+        return BigInteger.valueOf(val.asLong());
+    }
+
+    /**
+     * Accesses the stored integer value.
+     *   @return the integer value (as an Object, a BigInteger)
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+    /**
+     * Rejects access as a long (the value never fits in one).
+     *   @return never
+     */
+    public long asLong() {
+        throw new ArithmeticException("integer out of range: " + this.value);
+    }
+
+    /**
+     * Rejects access as an int (the value never fits in one).
+     *   @return never
+     */
+    public int asInt() {
+        throw new ArithmeticException("integer out of range: " + this.value);
+    }
+
+    /**
+     * Identifies the actual type of the value.
+     *   @return Token.Type.INTEGER
+     */
+    public DataValue.Type getType() {
+        return DataValue.Type.INTEGER;
+    }
+
+    /**
+     * Converts the integer value to a String.
+     *   @return a String representation of the integer value
+     */
+    public String toString() {
+        return this.value.toString();
+    }
+
+    /**
+     * Comparison method for integer values.
+     *   @param other the value being compared with
+     *   @return negative if <, 0 if ==, positive if >
+     */
+    public int compareTo(DataValue other) {
+        return this.value.compareTo(BigIntegerValue.toBigInteger(other));
+    }
+
+    /**
+     * Determines whether another value is the same integer (which is never an
+     * IntegerValue, as every integer has exactly one representation).
+     *   @param other the value being compared with
+     *   @return true if it is a BigIntegerValue holding the same number
+     */
+    public boolean equals(Object other) {
+        return other instanceof BigIntegerValue && ((BigIntegerValue) other).value.equals(this.value);
+    }
+
+    /**
+     * Generates a hash code for the integer value.
+     *   @return a hash code consistent with equals
+     */
+    public int hashCode() {
+        return this.value.hashCode();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Abstract class for representing a binary operator expression, e.g., (x + 1), in the SILLY language.
+ */
+public abstract class BinaryExpression extends Expression {
+    protected Expression lhs;
+    protected Token op;
+    protected Expression rhs;
+
+    /**
+     * Constructs a binary expression.
+     *   @param lhs the left operand
+     *   @param op the operator
+     *   @param rhs the right operand
+     */
+    public BinaryExpression(Expression lhs, Token op, Expression rhs) {
+        this.lhs = lhs;
+        this.op = op;
+        this.rhs = rhs;
+    }
+
+    /**
+     * Binds the variables in both operands to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.lhs.resolve(scopes);
+        this.rhs.resolve(scopes);
+    }
+
+    /**
+     * Accesses the (preallocated) error reported when the operands have the wrong types.
+     *   @return the type mismatch error
+     */
+    protected static RuntimeError mismatch() {
+        return RuntimeError.BINARY_MISMATCH;
+    }
+
+    /**
+     * Accesses the left operand.
+     *   @return the left operand expression
+     */
+    public Expression getLhs() {
+        return this.lhs;
+    }
+
+    /**
+     * Accesses the right operand.
+     *   @return the right operand expression
+     */
+    public Expression getRhs() {
+        return this.rhs;
+    }
+
+    /**
+     * Accesses the operator.
+     *   @return the operator token
+     */
+    public Token getOperator() {
+        return this.op;
+    }
+
+    /**
+     * Converts the current expression into a String.
+     *   @return the String representation of this expression
+     */
+    public String toString() {
+        return "(" + this.lhs + " " + this.op + " " + this.rhs + ")";
+    }
+}
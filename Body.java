@@ -7,6 +7,8 @@ import java.util.ArrayList;
  */
 public class Body {
     private ArrayList<Statement> stmts;
+    private boolean scoped;      // whether the body declares variables (and so needs a frame)
+    private int frameSize;
     
     /**
      * Constructs a a body of statements.
@@ -17,19 +19,82 @@ public class Body {
     }
     
     /**
-     * Exexcutes the body statements in order.
-     *   @return true if an exit occured, else fals
+     * Binds the body statements to frame slots in a new scope.  A body that
+     * declares no variables gets no scope of its own, so its statements are
+     * resolved (and later run) in the enclosing scope.
+     *   @param scopes the scopes visible to the body
      */
-    public Statement.Status execute() throws Exception {
-    	Interpreter.MEMORY.beginScope();
+    public void resolve(Resolver scopes) throws Exception {
+    	this.scoped = false;
     	for (Statement s: this.stmts) {
-    		s.execute();
+    		this.scoped = this.scoped || s.declares();
+    		if (s.definedSub() != null) {
+    			throw new Exception("SYNTAX ERROR: Subroutine '" + s.definedSub() + "' must be defined at the top level.");
+    		}
+    	}
+    	if (!this.scoped) {
+    		for (Statement s: this.stmts) {
+    			s.resolve(scopes);
+    		}
+    		return;
+    	}
+
+    	scopes.beginScope();
+    	try {
+    		for (Statement s: this.stmts) {
+    			s.resolve(scopes);
+    		}
+    	}
+    	finally {
+    		this.frameSize = scopes.endScope();
+    	}
+    }
+
+    /**
+     * Exexcutes the body statements in order, until one breaks or exits (the
+     * body's scope is ended either way, and when a statement throws).
+     *   @param context the state of the running program
+     *   @return the status of the statement that broke or exited, else OK
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+    	if (!this.scoped) {
+    		return this.run(context);
+    	}
+
+    	context.getMemory().beginScope(this.frameSize);
+    	try {
+    		return this.run(context);
+    	}
+    	finally {
+    		context.getMemory().endScope();
     	}
-    	Interpreter.MEMORY.endScope();
-    	
-    	return Statement.Status.OK;
     }
+
     
+    /**
+     * Accesses the body statements.
+     *   @return the statements, in order
+     */
+    public ArrayList<Statement> getStatements() {
+        return this.stmts;
+    }
+
+    /**
+     * Determines whether the body runs in a scope of its own.
+     *   @return true if the body declares variables, else false
+     */
+    public boolean isScoped() {
+        return this.scoped;
+    }
+
+    /**
+     * Accesses the number of slots in the body's frame.
+     *   @return the frame size (from the Resolver)
+     */
+    public int getFrameSize() {
+        return this.frameSize;
+    }
+
     /**
      * Converts the body into a String.
      *   @return the string representation
@@ -41,4 +106,16 @@ public class Body {
     	}
     	return msg.trim();
     }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private Statement.Status run(ExecutionContext context) throws Exception {
+    	for (Statement s: this.stmts) {
+    		Statement.Status status = s.execute(context);
+    		if (status != Statement.Status.OK) {
+    			return status;
+    		}
+    	}
+    	return Statement.Status.OK;
+    }
 }
@@ -4,15 +4,27 @@
  *   @version 1/20/26
  */
 public class BooleanValue implements DataValue {
-    private boolean value;
+    public static final BooleanValue TRUE = new BooleanValue(true);
+    public static final BooleanValue FALSE = new BooleanValue(false);
+    
+    private final boolean value;
     
     /**
      * Constructs a Boolean value.
      *   @param val the value being stored
      */
-    public BooleanValue(boolean val) {
+    private BooleanValue(boolean val) {
         this.value = val;
     }
+    
+    /**
+     * Accesses the shared Boolean value for true or false.
+     *   @param val the value being stored
+     *   @return BooleanValue.TRUE or BooleanValue.FALSE
+     */
+    public static BooleanValue valueOf(boolean val) {
+        return val ? BooleanValue.TRUE : BooleanValue.FALSE;
+    }
 
     /**
      * Accesses the stored Boolean value.
@@ -22,6 +34,14 @@ public class BooleanValue implements DataValue {
         return (Boolean) this.value;
     }
 
+    /**
+     * Accesses the stored Boolean value without boxing it.
+     *   @return the Boolean value
+     */
+    public boolean asBoolean() {
+        return this.value;
+    }
+
     /**
      * Identifies the actual type of the value.
      *   @return Token.Type.BOOLEAN
@@ -44,6 +64,6 @@ public class BooleanValue implements DataValue {
      *   @return negative if <, 0 if ==, positive if >
      */
     public int compareTo(DataValue other) {
-        return ((Boolean)this.getValue()).compareTo((Boolean)other.getValue());
+        return Boolean.compare(this.value, other.asBoolean());
     }
 }
@@ -0,0 +1,51 @@
+/**
+ * Derived class that represents a break statement in the SILLY language,
+ * which ends the innermost while or repeat loop it is in.  Executing it
+ * returns Statement.Status.BREAK, which each Body passes up (ending its scope
+ * on the way) until the loop stops on it.
+ */
+public class Break extends Statement {
+
+    /**
+     * Reads in a break statement from the specified stream.
+     *   @param input the stream to be read from
+     */
+    public Break(TokenStream input) throws Exception {
+        if (input.next() != Token.BREAK) {
+            throw new Exception("SYNTAX ERROR: Malformed break statement");
+        }
+    }
+
+    /**
+     * Constructs a break statement.
+     */
+    public Break() {
+    }
+
+    /**
+     * Checks that the break statement is inside a loop.
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        if (!scopes.inLoop()) {
+            throw new Exception("SYNTAX ERROR: break statement must be inside a loop");
+        }
+    }
+
+    /**
+     * Executes the current break statement.
+     *   @param context the state of the running program
+     *   @return Statement.Status.BREAK
+     */
+    public Statement.Status execute(ExecutionContext context) {
+        return Statement.Status.BREAK;
+    }
+
+    /**
+     * Converts the current break statement into a String.
+     *   @return the String representation of this statement
+     */
+    public String toString() {
+        return "break";
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Derived class that represents a call statement in the SILLY language,
+ * which calls a subroutine and ignores its result (see CallExpression).
+ */
+public class Call extends Statement {
+    private CallExpression call;
+
+    /**
+     * Reads in a call statement from the specified stream.
+     *   @param input the stream to be read from
+     */
+    public Call(TokenStream input) throws Exception {
+        if (input.next() != Token.CALL) {
+            throw new Exception("SYNTAX ERROR: Malformed call statement");
+        }
+        this.call = new CallExpression(input);
+    }
+
+    /**
+     * Constructs a call statement from its call.
+     *   @param call the call
+     */
+    public Call(CallExpression call) {
+        this.call = call;
+    }
+
+    /**
+     * Binds the call to its subroutine (and the variables in its arguments to frame slots).
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.call.resolve(scopes);
+    }
+
+    /**
+     * Executes the current call statement.
+     *   @param context the state of the running program
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        this.call.invoke(context);
+
+        return Statement.Status.OK;
+    }
+
+    /**
+     * Accesses the call.
+     *   @return the call expression
+     */
+    public CallExpression getCall() {
+        return this.call;
+    }
+
+    /**
+     * Converts the current call statement into a String.
+     *   @return the String representation of this statement
+     */
+    public String toString() {
+        return this.call.toString();
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.ArrayList;
+
+/**
+ * Derived class that represents a subroutine call in the SILLY language:
+ *     call NAME (ARGUMENT ...)
+ * As an expression, its value is the value the subroutine assigns to its own
+ * name (see Sub).  The arguments are evaluated in order, in the caller's
+ * frame, and pushed on the memory space's argument stack, from which the call
+ * moves them into the parameter slots of the subroutine's frame.
+ */
+public class CallExpression extends Expression {
+    private Token name;
+    private Expression[] args;
+    private Sub sub;      // from the Resolver
+
+    /**
+     * Reads in the rest of a call (after the call keyword) from the specified stream.
+     *   @param input the stream to be read from
+     */
+    public CallExpression(TokenStream input) throws Exception {
+        this.name = input.next();
+        if (this.name.getType() != Token.Type.IDENTIFIER) {
+            throw new Exception("SYNTAX ERROR: Illegal subroutine name (" + this.name + ")");
+        }
+        if (input.next() != Token.LPAREN) {
+            throw new Exception("SYNTAX ERROR: Malformed call (expecting '(')");
+        }
+        ArrayList<Expression> args = new ArrayList<Expression>();
+        while (input.lookAhead() != Token.RPAREN) {
+            args.add(Expression.getExpression(input));
+        }
+        input.next();
+        this.args = args.toArray(new Expression[0]);
+    }
+
+    /**
+     * Constructs a call from its parts.
+     *   @param name the name of the subroutine
+     *   @param args the argument expressions, in order
+     */
+    public CallExpression(Token name, ArrayList<Expression> args) {
+        this.name = name;
+        this.args = args.toArray(new Expression[0]);
+    }
+
+    /**
+     * Binds the call to its subroutine, and the variables in the arguments to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.sub = scopes.lookupSub(this.name);
+        if (this.sub == null) {
+            throw new Exception("SYNTAX ERROR: Subroutine '" + this.name + "' is not defined.");
+        }
+        if (this.sub.getParameters().size() != this.args.length) {
+            throw new Exception("SYNTAX ERROR: Subroutine '" + this.name + "' takes " +
+                                this.sub.getParameters().size() + " argument(s), not " + this.args.length);
+        }
+        for (Expression e : this.args) {
+            e.resolve(scopes);
+        }
+    }
+
+    /**
+     * Calls the subroutine, for its value.
+     *   @param context the state of the running program
+     *   @return the value the subroutine assigned to its name
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return CallExpression.result(this.sub, this.invoke(context));
+    }
+
+    /**
+     * Calls the subroutine (e.g., for a call statement, which ignores its value).
+     *   @param context the state of the running program
+     *   @return the value the subroutine assigned to its name (null if none)
+     */
+    public DataValue invoke(ExecutionContext context) throws Exception {
+        MemorySpace memory = context.getMemory();
+        int pushed = memory.argumentCount();
+        try {
+            for (Expression e : this.args) {
+                memory.pushArgument(e.evaluate(context));
+            }
+        }
+        catch (Exception e) {
+            memory.dropArguments(pushed);
+            throw e;
+        }
+        return this.sub.invoke(context);
+    }
+
+    /**
+     * Checks that a call used for its value produced one.
+     *   @param sub the subroutine called
+     *   @param result the value it assigned to its name (or null)
+     *   @return the result
+     */
+    public static DataValue result(Sub sub, DataValue result) throws Exception {
+        if (result == null) {
+            throw new RuntimeError("RUNTIME ERROR: Subroutine '", sub.getName(), "' did not assign a result");
+        }
+        return result;
+    }
+
+    /**
+     * Accesses the name of the subroutine called.
+     *   @return the name token
+     */
+    public Token getName() {
+        return this.name;
+    }
+
+    /**
+     * Accesses the subroutine called.
+     *   @return the subroutine (from the Resolver)
+     */
+    public Sub getSub() {
+        return this.sub;
+    }
+
+    /**
+     * Accesses the argument expressions.
+     *   @return the arguments, in order
+     */
+    public ArrayList<Expression> getArguments() {
+        ArrayList<Expression> args = new ArrayList<Expression>();
+        for (Expression e : this.args) {
+            args.add(e);
+        }
+        return args;
+    }
+
+    /**
+     * Converts the call into a String.
+     *   @return the String representation of this expression
+     */
+    public String toString() {
+        String message = "call " + this.name + " (";
+        for (Expression e : this.args) {
+            message += e + " ";
+        }
+        return message.trim() + ")";
+    }
+}
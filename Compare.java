@@ -0,0 +1,81 @@
+/**
+ * Derived class that represents a comparison, e.g., (x < y) or (x \ y), in the SILLY language.
+ */
+public class Compare extends BinaryExpression {
+    public static final int EQUAL = 0, NOT_EQUAL = 1, GREATER = 2, LESS = 3;
+
+    private int relation;
+
+    /**
+     * Constructs a comparison.
+     *   @param lhs the left operand
+     *   @param op the comparison operator (=, \, > or <)
+     *   @param rhs the right operand
+     */
+    public Compare(Expression lhs, Token op, Expression rhs) {
+        super(lhs, op, rhs);
+        if (op == Token.EQUALS) {
+            this.relation = Compare.EQUAL;
+        } else if (op == Token.NOT_EQUALS) {
+            this.relation = Compare.NOT_EQUAL;
+        } else if (op == Token.GREATER) {
+            this.relation = Compare.GREATER;
+        } else {
+            this.relation = Compare.LESS;
+        }
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return BooleanValue.valueOf(Compare.holds(this.relation, this.lhs.evaluate(context), this.rhs.evaluate(context)));
+    }
+
+    /**
+     * Accesses the relation being tested.
+     *   @return Compare.EQUAL, NOT_EQUAL, GREATER or LESS
+     */
+    public int getRelation() {
+        return this.relation;
+    }
+
+    /**
+     * Evaluates the comparison of two values of the same type.
+     *   @param relation Compare.EQUAL, NOT_EQUAL, GREATER or LESS
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return whether the relation holds
+     */
+    public static DataValue apply(int relation, DataValue l, DataValue r) throws Exception {
+        return BooleanValue.valueOf(Compare.holds(relation, l, r));
+    }
+
+    /**
+     * Tests the comparison of two values of the same type, without boxing the result.
+     *   @param relation Compare.EQUAL, NOT_EQUAL, GREATER or LESS
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return whether the relation holds
+     */
+    public static boolean holds(int relation, DataValue l, DataValue r) throws Exception {
+        int diff;
+        if (l instanceof IntegerValue && r instanceof IntegerValue) {
+            diff = Long.compare(l.asLong(), r.asLong());
+        }
+        else if (l.getType() != r.getType()) {
+            throw BinaryExpression.mismatch();
+        }
+        else {
+            diff = l.compareTo(r);
+        }
+        switch (relation) {
+            case Compare.EQUAL:     return diff == 0;
+            case Compare.NOT_EQUAL: return diff != 0;
+            case Compare.GREATER:   return diff > 0;
+            default:                return diff < 0;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Class that represents a hot while/repeat loop compiled by the LoopCompiler.
+ * The loop runs on a long[] register file (booleans are computed directly)
+ * instead of MemorySpace frames: the outer variables it uses are loaded into
+ * registers on entry, guarded to still hold IntegerValues, and the ones it
+ * assigns are stored back when it exits (normally or by an exception).
+ * The registers are copied every CHECKPOINT iterations, and what the loop
+ * prints is held back until the next copy, so when an iteration's arithmetic
+ * fails (a result that overflows a long, or a division by zero) the loop can
+ * be rolled back to the last copy and handed to the interpreter, which redoes
+ * those iterations (promoting to BigIntegerValues, or reporting the error)
+ * and runs the rest of the loop.
+ */
+public class CompiledLoop {
+    public static final int CHECKPOINT = 4096;
+
+    public interface IntCode {
+        long run(long[] regs);
+    }
+
+    public interface BoolCode {
+        boolean run(long[] regs);
+    }
+
+    public interface StmtCode {
+        void run(long[] regs, CompiledLoop.Output out);
+    }
+
+    /**
+     * Class that holds back the lines printed by a compiled loop until its
+     * next checkpoint.
+     */
+    public static class Output {
+        private static final int LIMIT = 8192;          // chars held back before a checkpoint is taken early
+        private static final int MAX = 1 << 20;         // chars held back before they must be written
+
+        private final OutputSink sink;
+        private final StringBuilder pending;
+        private boolean written;                        // output since the checkpoint was written, so it cannot be undone
+
+        private Output(OutputSink sink) {
+            this.sink = sink;
+            this.pending = new StringBuilder();
+        }
+
+        /**
+         * Prints a line (at the next checkpoint).
+         *   @param line the text (without the line separator)
+         */
+        public void println(String line) {
+            this.pending.append(line).append(System.lineSeparator());
+            if (this.pending.length() > Output.MAX) {
+                this.write();
+                this.written = true;
+            }
+        }
+
+        private void write() {
+            if (this.pending.length() > 0) {
+                this.sink.printLines(this.pending.toString());
+                this.pending.setLength(0);
+            }
+        }
+    }
+
+    private final BoolCode test;  // null for a repeat loop
+    private final StmtCode body;
+    private final int registers;
+    private final int[] outerRegister;  // registers holding variables from enclosing scopes
+    private final int[] outerDepth;
+    private final int[] outerSlot;
+    private final boolean[] outerWritten;
+    private boolean abandoned;          // a run was rolled back, so the interpreter runs the loop from now on (in this context)
+
+    /**
+     * Constructs a compiled loop.
+     *   @param test the compiled test (null for a repeat loop)
+     *   @param body the compiled body
+     *   @param registers the size of the register file
+     *   @param outerRegister the register of each outer variable
+     *   @param outerDepth the scope depth of each outer variable (relative to the loop)
+     *   @param outerSlot the frame slot of each outer variable
+     *   @param outerWritten whether each outer variable is assigned in the loop
+     */
+    public CompiledLoop(BoolCode test, StmtCode body, int registers, int[] outerRegister,
+                        int[] outerDepth, int[] outerSlot, boolean[] outerWritten) {
+        this.test = test;
+        this.body = body;
+        this.registers = registers;
+        this.outerRegister = outerRegister;
+        this.outerDepth = outerDepth;
+        this.outerSlot = outerSlot;
+        this.outerWritten = outerWritten;
+    }
+
+    /**
+     * Runs the loop, unless an outer variable no longer holds an IntegerValue
+     * (in which case nothing is changed and the interpreter must run it
+     * instead).  If an iteration's arithmetic fails, the variables are left as
+     * they were at the last checkpoint, for the interpreter to go on from.
+     *   @param context the state of the running program
+     *   @param count the number of iterations left (ignored for a while loop)
+     *   @return -1 if the loop ran to the end, else the number of iterations left
+     *           for the interpreter (for a while loop, any other value means the
+     *           interpreter must go on with the loop)
+     */
+    public long run(ExecutionContext context, long count) {
+        if (this.abandoned) {
+            return count;
+        }
+        MemorySpace memory = context.getMemory();
+        long[] regs = new long[this.registers];
+        for (int i = 0; i < this.outerRegister.length; i++) {
+            DataValue val = memory.lookupValue(this.outerDepth[i], this.outerSlot[i]);
+            if (!(val instanceof IntegerValue)) {
+                return count;
+            }
+            regs[this.outerRegister[i]] = val.asLong();
+        }
+
+        long[] saved = regs.clone();
+        long savedLeft = count;
+        CompiledLoop.Output out = new CompiledLoop.Output(context.getOutput());
+        long left = count;
+        int untilCheckpoint = CompiledLoop.CHECKPOINT;
+        try {
+            if (this.test != null) {
+                while (this.test.run(regs)) {
+                    this.body.run(regs, out);
+                    if (--untilCheckpoint == 0 || out.pending.length() > Output.LIMIT) {
+                        CompiledLoop.checkpoint(regs, saved, out);
+                        untilCheckpoint = CompiledLoop.CHECKPOINT;
+                    }
+                }
+            }
+            else {
+                for (; left > 0; left--) {
+                    this.body.run(regs, out);
+                    if (--untilCheckpoint == 0 || out.pending.length() > Output.LIMIT) {
+                        CompiledLoop.checkpoint(regs, saved, out);
+                        savedLeft = left - 1;
+                        untilCheckpoint = CompiledLoop.CHECKPOINT;
+                    }
+                }
+            }
+            out.write();
+            left = -1;
+        }
+        catch (ArithmeticException e) {
+            if (out.written) {
+                throw e;        // too late to roll back
+            }
+            System.arraycopy(saved, 0, regs, 0, regs.length);
+            left = savedLeft;
+            this.abandoned = true;
+        }
+        finally {
+            for (int i = 0; i < this.outerRegister.length; i++) {
+                if (this.outerWritten[i]) {
+                    memory.storeValue(this.outerDepth[i], this.outerSlot[i],
+                                      IntegerValue.valueOf(regs[this.outerRegister[i]]));
+                }
+            }
+        }
+        return left;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private static void checkpoint(long[] regs, long[] saved, CompiledLoop.Output out) {
+        System.arraycopy(regs, 0, saved, 0, regs.length);
+        out.write();
+        out.written = false;
+    }
+}
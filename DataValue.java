@@ -9,4 +9,28 @@ public interface DataValue extends Comparable<DataValue> {
     public Object getValue();
     public DataValue.Type getType();
     public String toString(); 
+    
+    /**
+     * Accesses the stored integer without boxing it.
+     *   @return the integer value (only for Type.INTEGER values that fit in a long)
+     */
+    public default long asLong() {
+        throw new ClassCastException(this.getType() + " value is not an integer");
+    }
+    
+    /**
+     * Accesses the stored integer as an int.
+     *   @return the integer value (only for Type.INTEGER values that fit in an int)
+     */
+    public default int asInt() {
+        throw new ClassCastException(this.getType() + " value is not an integer");
+    }
+    
+    /**
+     * Accesses the stored boolean without boxing it.
+     *   @return the boolean value (only for Type.BOOLEAN values)
+     */
+    public default boolean asBoolean() {
+        throw new ClassCastException(this.getType() + " value is not a boolean");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+/**
+ * Derived class that represents integer division, (x / y), in the SILLY language.
+ */
+public class Divide extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Divide(Expression lhs, Expression rhs) {
+        super(lhs, Token.SLASH, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Divide.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the quotient of two integers.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the resulting integer value
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() != DataValue.Type.INTEGER || r.getType() != DataValue.Type.INTEGER) {
+            throw BinaryExpression.mismatch();
+        }
+        if (l instanceof IntegerValue && r instanceof IntegerValue) {
+            long a = l.asLong(), b = r.asLong();
+            if (b == 0) {
+                throw RuntimeError.DIVIDE_BY_ZERO;
+            }
+            if (a != Long.MIN_VALUE || b != -1) {             // the one quotient that overflows
+                return IntegerValue.valueOf(a / b);
+            }
+        }
+        else if (r.compareTo(IntegerValue.valueOf(0)) == 0) {
+            throw RuntimeError.DIVIDE_BY_ZERO;
+        }
+        return BigIntegerValue.valueOf(BigIntegerValue.toBigInteger(l).divide(BigIntegerValue.toBigInteger(r)));
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that holds the state of one running SILLY program: its runtime stack
+ * and string heap (the MemorySpace), the scopes its statements are resolved
+ * in, the results cached for its memoized subroutines, the profiles of its
+ * loops (see LoopCompiler), and where its output goes.  It is passed to every execute and evaluate
+ * call, so programs with separate contexts can run at the same time (e.g., on
+ * different threads) without sharing anything.
+ */
+public class ExecutionContext {
+    private MemorySpace memory;
+    private Resolver scopes;
+    private OutputSink output;
+    private MemoCache[] memos;     // by subroutine number (see Resolver.defineSub)
+    private LoopCompiler.Profile[] loops;     // by loop number (see Resolver.beginLoop)
+
+    /**
+     * Constructs a context with an empty memory space and global scope.
+     *   @param output the sink the program prints to
+     */
+    public ExecutionContext(OutputSink output) {
+        this.memory = new MemorySpace();
+        this.scopes = new Resolver();
+        this.output = output;
+        this.memos = new MemoCache[0];
+        this.loops = new LoopCompiler.Profile[0];
+    }
+
+    /**
+     * Accesses the program's memory space.
+     *   @return the runtime stack and heap
+     */
+    public MemorySpace getMemory() {
+        return this.memory;
+    }
+
+    /**
+     * Accesses the scopes the program's statements are resolved in.
+     *   @return the resolver (holding the global scope)
+     */
+    public Resolver getScopes() {
+        return this.scopes;
+    }
+
+    /**
+     * Accesses the sink the program prints to.
+     *   @return the output sink
+     */
+    public OutputSink getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Accesses the results cached for a memoized subroutine (creating the
+     * cache the first time).
+     *   @param sub the subroutine
+     *   @param number the number of the subroutine (from the Resolver)
+     *   @return the subroutine's cache
+     */
+    public MemoCache getMemo(Sub sub, int number) {
+        if (number >= this.memos.length) {
+            this.memos = Arrays.copyOf(this.memos, number + 1);
+        }
+        if (this.memos[number] == null) {
+            this.memos[number] = new MemoCache(sub);
+        }
+        return this.memos[number];
+    }
+
+    /**
+     * Accesses how often a loop has run in this program (creating the profile
+     * the first time).
+     *   @param number the number of the loop (from the Resolver)
+     *   @return the loop's profile
+     */
+    public LoopCompiler.Profile getLoop(int number) {
+        if (number >= this.loops.length) {
+            this.loops = Arrays.copyOf(this.loops, number + 1);
+        }
+        if (this.loops[number] == null) {
+            this.loops[number] = new LoopCompiler.Profile();
+        }
+        return this.loops[number];
+    }
+
+    /**
+     * Accesses the caches of the memoized subroutines that have been called.
+     *   @return the caches, by subroutine number
+     */
+    public List<MemoCache> getMemos() {
+        ArrayList<MemoCache> memos = new ArrayList<MemoCache>();
+        for (MemoCache memo : this.memos) {
+            if (memo != null) {
+                memos.add(memo);
+            }
+        }
+        return memos;
+    }
+
+    /**
+     * Accesses the program's string heap.
+     *   @return the string table of the memory space
+     */
+    public StringTable getHeap() {
+        return this.memory.getHeap();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Derived class that represents an exit statement in the SILLY language,
+ * which ends the subroutine it is in (see Sub), or the whole program at the
+ * top level.  Executing it returns Statement.Status.EXIT, which each Body and
+ * loop passes up (ending its scope on the way).
+ */
+public class Exit extends Statement {
+
+    /**
+     * Reads in an exit statement from the specified stream.
+     *   @param input the stream to be read from
+     */
+    public Exit(TokenStream input) throws Exception {
+        if (input.next() != Token.EXIT) {
+            throw new Exception("SYNTAX ERROR: Malformed exit statement");
+        }
+    }
+
+    /**
+     * Constructs an exit statement.
+     */
+    public Exit() {
+    }
+
+    /**
+     * Binds nothing (an exit statement has no variables).
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) {
+    }
+
+    /**
+     * Executes the current exit statement.
+     *   @param context the state of the running program
+     *   @return Statement.Status.EXIT
+     */
+    public Statement.Status execute(ExecutionContext context) {
+        return Statement.Status.EXIT;
+    }
+
+    /**
+     * Converts the current exit statement into a String.
+     *   @return the String representation of this statement
+     */
+    public String toString() {
+        return "exit";
+    }
+}
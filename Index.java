@@ -0,0 +1,55 @@
+/**
+ * Derived class that represents indexing into a string or list, (x @ i), in the SILLY language.
+ */
+public class Index extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Index(Expression lhs, Expression rhs) {
+        super(lhs, Token.AT, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Index.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the character of a string (or item of a list) at an index.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the one-character string (or list item)
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() == r.getType()) {
+            throw BinaryExpression.mismatch();
+        }
+        if (r.getType() != DataValue.Type.INTEGER ||
+            (l.getType() != DataValue.Type.STRING && l.getType() != DataValue.Type.LIST)) {
+            throw RuntimeError.INDEX_MISMATCH;
+        }
+        if (!(r instanceof IntegerValue) || (int) r.asLong() != r.asLong()) {
+            throw RuntimeError.OUT_OF_RANGE;
+        }
+        int index = r.asInt();
+        if (l.getType() == DataValue.Type.STRING) {
+            StringValue str = (StringValue) l;
+            if (index < 0 || index >= str.length()) {
+                throw RuntimeError.INDEX_BOUNDS;
+            }
+            return str.charValue(index);
+        }
+        ListValue list = (ListValue) l;
+        if (index < 0 || index >= list.size()) {
+            throw RuntimeError.INDEX_BOUNDS;
+        }
+        return list.get(index);
+    }
+}
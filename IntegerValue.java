@@ -1,25 +1,67 @@
 /**
- * Class that represents an integer value.
+ * Class that represents an integer value that fits in a long (larger ones
+ * are BigIntegerValues).
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class IntegerValue implements DataValue {
-    private int value;
+    // values from CACHE_LOW to CACHE_HIGH (set with -Dsilly.intcache) are shared
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = Math.max(Integer.getInteger("silly.intcache", 1023), 127);
+    private static final IntegerValue[] cache = new IntegerValue[CACHE_HIGH - CACHE_LOW + 1];
+    static {
+        for (int i = 0; i < IntegerValue.cache.length; i++) {
+            IntegerValue.cache[i] = new IntegerValue(i + CACHE_LOW);
+        }
+    }
+    
+    private final long value;
     
     /**
      * Constructs an integer value.
      *   @param num the integer being stored
      */
-    public IntegerValue(int num) {
+    private IntegerValue(long num) {
         this.value = num;
     }
+    
+    /**
+     * Accesses the integer value for a number (shared for small numbers).
+     *   @param num the integer being stored
+     *   @return the integer value
+     */
+    public static IntegerValue valueOf(long num) {
+        if (num >= CACHE_LOW && num <= CACHE_HIGH) {
+            return IntegerValue.cache[(int) num - CACHE_LOW];
+        }
+        return new IntegerValue(num);
+    }
 
     /**
      * Accesses the stored integer value.
      *   @return the integer value (as an Object)
      */
     public Object getValue() {
-        return (Integer)this.value;
+        return (Long)this.value;
+    }
+
+    /**
+     * Accesses the stored integer value without boxing it.
+     *   @return the integer value
+     */
+    public long asLong() {
+        return this.value;
+    }
+
+    /**
+     * Accesses the stored integer value as an int (e.g., for an index).
+     *   @return the integer value
+     */
+    public int asInt() {
+        if ((int) this.value != this.value) {
+            throw new ArithmeticException("integer out of range: " + this.value);
+        }
+        return (int) this.value;
     }
 
     /**
@@ -44,6 +86,26 @@ public class IntegerValue implements DataValue {
      *   @return negative if <, 0 if ==, positive if >
      */
     public int compareTo(DataValue other) {
-         return ((Integer)this.getValue()).compareTo((Integer)other.getValue());
+        if (other instanceof BigIntegerValue) {
+            return -other.compareTo(this);
+        }
+        return Long.compare(this.value, other.asLong());
+    }
+
+    /**
+     * Determines whether another value is the same integer.
+     *   @param other the value being compared with
+     *   @return true if it is an IntegerValue holding the same number
+     */
+    public boolean equals(Object other) {
+        return other instanceof IntegerValue && ((IntegerValue) other).value == this.value;
+    }
+
+    /**
+     * Generates a hash code for the integer value.
+     *   @return a hash code consistent with equals
+     */
+    public int hashCode() {
+        return Long.hashCode(this.value);
     }
 }
\ No newline at end of file
@@ -1,38 +1,134 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * Driver for the interactive SILLY Interpreter. 
+ * Run with -profile to print the statements and expressions that took the
+ * most time (to standard error) after running a program file, or with
+ * -server PORT to run program files sent by local clients (see ScriptServer).  The program runs in an
+ * ExecutionContext, whose output goes through an OutputSink (see it for the
+ * -Dsilly.output and -Dsilly.flush settings).  Run with -Dsilly.cache=DIR
+ * to keep parsed program files in DIR, so running one again skips parsing
+ * (see ProgramCache); by default nothing is written.  When subroutines are memoized
+ * (see MemoCache), their cache statistics are printed to standard error after
+ * running a program file.  An exit statement at the top level ends the
+ * program (or the interactive session).
  *   @author Dave Reed 
  *   @version 1/20/26
  */
 public class Interpreter {
-    public static MemorySpace MEMORY = new MemorySpace();
-    
     public static void main(String[] args) throws Exception {   
+        if (Arrays.asList(args).contains("-profile")) {
+            Profiler.ACTIVE = new Profiler();
+        }
+        int server = Arrays.asList(args).indexOf("-server");
+        if (server >= 0) {
+            new ScriptServer(Integer.parseInt(args[server + 1])).serve();
+            return;
+        }
+        
     	System.out.print("Enter the program file name or hit RETURN for interactive: ");       
+    	System.out.flush();
         Scanner input = new Scanner(System.in);
         String response = input.nextLine().strip();
+        ExecutionContext context = new ExecutionContext(OutputSink.create(response.equals("")));
+        try {
+            Interpreter.runAll(context, input, response);
+        }
+        finally {
+            context.getOutput().close();
+        }
+    }
+
+    /**
+     * Runs the statements typed in (if response is empty) or in a program file.
+     *   @param context the state of the running program
+     *   @param input the scanner the response was read with
+     *   @param response the program file name (or empty)
+     */
+    private static void runAll(ExecutionContext context, Scanner input, String response) throws Exception {
+        if (response.equals("")) {
+            TokenStream inStream = new TokenStream();
+            Statement.Status status = Statement.Status.OK;
+            while (status != Statement.Status.EXIT) {
+                context.getOutput().print(">>> ");
+                context.getOutput().flush();
+                status = Interpreter.run(context, Statement.getStatement(inStream));
+            }
+            input.close();
+            return;
+        }
         
-        TokenStream inStream = new TokenStream();
-        if (!response.equals("")) {
-            inStream = new TokenStream(response);
-        }      
-        
-        while (response.equals("") || inStream.hasNext()) {
-            System.out.print(">>> ");
-            Statement stmt = Statement.getStatement(inStream);
-            
-            if (!response.equals("")) {
-            	System.out.println(stmt);
+        List<Statement> program;
+        try {
+            if (Profiler.ACTIVE != null) {
+                program = new Parser(new TokenStream(response)).parseProgram();  // cached trees are unwrapped
+            }
+            else {
+                program = ProgramCache.load(response);
             }
-    		
-            try {
-    			stmt.execute();
-    		}
-    		catch (Exception e) {
-    			System.out.println(e);
-    		}
-        } 
+        }
+        catch (IOException e) {
+            context.getOutput().println(e.toString());
+            input.close();
+            return;
+        }
+        catch (Exception e) {
+            context.getOutput().println(e.getMessage());
+            input.close();
+            return;
+        }
+        for (Statement stmt : program) {
+            context.getOutput().print(">>> ");
+            context.getOutput().println(stmt.toString());
+            if (Interpreter.run(context, stmt) == Statement.Status.EXIT) {
+                break;
+            }
+        }
+        if (Profiler.ACTIVE != null) {
+            context.getOutput().flush();
+            Profiler.ACTIVE.report(System.err);
+        }
+        if (!context.getMemos().isEmpty()) {
+            context.getOutput().flush();
+            for (MemoCache memo : context.getMemos()) {
+                System.err.println(memo);
+            }
+        }
         input.close();
     }
+    
+    /**
+     * Optimizes, resolves and executes a statement, reporting any error.
+     *   @param context the state of the running program
+     *   @param stmt the statement
+     *   @return EXIT if the statement exited, else OK
+     */
+    private static Statement.Status run(ExecutionContext context, Statement stmt) {
+        try {
+        	stmt = Optimizer.optimize(stmt);
+        	stmt.resolve(context.getScopes());
+        	return stmt.execute(context);
+		}
+		catch (Exception e) {
+			context.getOutput().println(Interpreter.report(e));
+			return Statement.Status.OK;
+		}
+    }
+
+    /**
+     * Converts an error into the line it is reported with: just the message
+     * of a SILLY error (a RuntimeError, or the Exception a syntax error is
+     * thrown as), else the whole exception.
+     *   @param e the error
+     *   @return the line to print
+     */
+    static String report(Exception e) {
+        if (e instanceof RuntimeError || e.getClass() == Exception.class) {
+            return e.getMessage();
+        }
+        return e.toString();
+    }
 }
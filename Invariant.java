@@ -0,0 +1,73 @@
+/**
+ * Derived class that represents a loop-invariant expression hoisted by the
+ * Optimizer: one that uses no variable assigned in the loop it appears in.
+ * Its value is kept in a hidden temporary declared in a scope of that loop's
+ * own, which the loop enters (cleared) each time it starts, so the expression
+ * is evaluated the first time it is needed (exactly where it would have been,
+ * errors included) and the saved value is used for the rest of that run of
+ * the loop.
+ */
+public class Invariant extends Expression {
+    private Expression expr;
+    private Token temp;       // the hidden temporary (not a legal variable name)
+    private int depth;        // from the Resolver
+    private int slot;
+
+    /**
+     * Constructs a hoisted expression.
+     *   @param expr the loop-invariant expression
+     *   @param temp the name of the hidden temporary holding its value
+     */
+    public Invariant(Expression expr, Token temp) {
+        this.expr = expr;
+        this.temp = temp;
+    }
+
+    /**
+     * Declares the hidden temporary (in the loop's own scope).
+     *   @param scopes the scopes visible to the loop
+     */
+    public void declare(Resolver scopes) throws Exception {
+        scopes.declare(this.temp);
+    }
+
+    /**
+     * Binds the hidden temporary and the variables in the expression to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.depth = scopes.depthOf(this.temp);
+        this.slot = scopes.slotOf(this.temp, this.depth);
+        this.expr.resolve(scopes);
+    }
+
+    /**
+     * Evaluates the expression, unless its value has been saved in this run of the loop.
+     *   @param context the state of the running program
+     *   @return the value of the expression
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        DataValue saved = context.getMemory().lookupValue(this.depth, this.slot);
+        if (saved == null) {
+            saved = this.expr.evaluate(context);
+            context.getMemory().storeValue(this.depth, this.slot, saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Accesses the hoisted expression.
+     *   @return the loop-invariant expression
+     */
+    public Expression getExpression() {
+        return this.expr;
+    }
+
+    /**
+     * Converts the expression into a String.
+     *   @return the String representation of the hoisted expression
+     */
+    public String toString() {
+        return this.expr.toString();
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Derived class that represents a string/list length, (# x), in the SILLY language.
+ */
+public class Length extends UnaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param operand the operand expression
+     */
+    public Length(Expression operand) {
+        super(Token.LENGTH, operand);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Length.apply(this.operand.evaluate(context));
+    }
+
+    /**
+     * Evaluates the length.
+     *   @param val the operand value
+     *   @return the number of characters in the string (or items in the list)
+     */
+    public static DataValue apply(DataValue val) throws Exception {
+        if (val.getType() == DataValue.Type.STRING) {
+            return IntegerValue.valueOf(((StringValue) val).length());
+        } else if (val.getType() == DataValue.Type.LIST) {
+            return IntegerValue.valueOf(((ListValue) val).size());
+        }
+        throw UnaryExpression.mismatch();
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.ArrayList;
+
+/**
+ * Derived class that represents a list expression (e.g., [1 x "a"]) in the SILLY language.
+ */
+public class ListLiteral extends Expression {
+    private ArrayList<Expression> items;
+
+    /**
+     * Constructs a list expression.
+     *   @param items the expressions for the list contents
+     */
+    public ListLiteral(ArrayList<Expression> items) {
+        this.items = items;
+    }
+
+    /**
+     * Binds the variables in the list contents to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        for (Expression e : this.items) {
+            e.resolve(scopes);
+        }
+    }
+
+    /**
+     * Evaluates the list contents in order.
+     *   @param context the state of the running program
+     *   @return the list value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        ArrayList<DataValue> vals = new ArrayList<DataValue>(this.items.size());
+        for (Expression e : this.items) {
+            vals.add(e.evaluate(context));
+        }
+        return new ListValue(vals);
+    }
+
+    /**
+     * Accesses the expressions for the list contents.
+     *   @return the item expressions, in order
+     */
+    public ArrayList<Expression> getItems() {
+        return this.items;
+    }
+
+    /**
+     * Converts the list expression into a String.
+     *   @return the String representation of this expression
+     */
+    public String toString() {
+        String message = "[";
+        for (Expression e : this.items) {
+            message += e + " ";
+        }
+        return message.trim() + "]";
+    }
+}
@@ -1,29 +1,65 @@
-import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Class that represents a list value.
+ * Class that represents a list value (stored in a PersistentVector, so lists
+ * built from other lists share their structure).
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class ListValue implements DataValue {
-    private ArrayList<DataValue> value;
+    private PersistentVector value;
+    private int hash;        // computed lazily (the list never changes)
 
     /**
      * Constructs a list value.
      *   @param exprs the list expressions being stored
      */
-    public ListValue(ArrayList<DataValue> exprs) {
-    	this.value = new ArrayList<DataValue>(exprs);
+    public ListValue(List<DataValue> exprs) {
+    	this.value = PersistentVector.EMPTY.appendAll(exprs);
+    }
+
+    /**
+     * Constructs a list value around an existing vector.
+     *   @param items the items being stored
+     */
+    private ListValue(PersistentVector items) {
+        this.value = items;
     }
     
     /**
      * Accesses the stored list value.
-     *   @return the list value (as an Object)
+     *   @return the list value (as an Object, a read-only List)
      */
     public Object getValue() {
         return this.value;
     }  
 
+    /**
+     * Accesses the number of items in the list.
+     *   @return the list length
+     */
+    public int size() {
+        return this.value.size();
+    }
+
+    /**
+     * Accesses an item in the list.
+     *   @param index the index of the item (starting at 0)
+     *   @return the item at that index
+     */
+    public DataValue get(int index) {
+        return this.value.get(index);
+    }
+
+    /**
+     * Creates the concatenation of this list and another (neither is changed).
+     *   @param other the list whose items follow this list's
+     *   @return the concatenated list
+     */
+    public ListValue concat(ListValue other) {
+        return new ListValue(this.value.appendAll(other.value));
+    }
+
     /**
      * Identifies the actual type of the value.
      *   @return Token.Type.LIST
@@ -52,4 +88,24 @@ public class ListValue implements DataValue {
     public int compareTo(DataValue other) {
          return (this.getValue().toString()).compareTo(other.getValue().toString());
     }
+
+    /**
+     * Determines whether another value is a list of the same values.
+     *   @param other the value being compared with
+     *   @return true if it is a ListValue whose items are equal, in order
+     */
+    public boolean equals(Object other) {
+        return other instanceof ListValue && (other == this || this.value.equals(((ListValue) other).value));
+    }
+
+    /**
+     * Generates a hash code for the list value (from its items).
+     *   @return a hash code consistent with equals
+     */
+    public int hashCode() {
+        if (this.hash == 0) {
+            this.hash = this.value.hashCode();
+        }
+        return this.hash;
+    }
 }
\ No newline at end of file
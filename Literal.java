@@ -0,0 +1,67 @@
+import java.math.BigInteger;
+
+/**
+ * Derived class that represents an integer, string or boolean literal in the SILLY language.
+ */
+public class Literal extends Expression {
+    private Token tok;
+    private DataValue value;    // the integer or boolean value (null for a string)
+
+    /**
+     * Constructs a literal expression.
+     *   @param tok the literal token
+     */
+    public Literal(Token tok) {
+        this.tok = tok;
+        if (tok.getType() == Token.Type.INT_LITERAL) {
+            String num = tok.toString();
+            if (num.length() < 19) {
+                this.value = IntegerValue.valueOf(Long.parseLong(num));
+            }
+            else {
+                this.value = BigIntegerValue.valueOf(new BigInteger(num));
+            }
+        }
+        else if (tok.getType() != Token.Type.STR_LITERAL) {
+            this.value = BooleanValue.valueOf(tok == Token.TRUE);
+        }
+    }
+
+    /**
+     * Literals contain no variables, so there is nothing to resolve.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) {
+    }
+
+    /**
+     * Evaluates the literal.  Integer and boolean values are converted from the
+     * token when the literal is constructed (so a shared statement tree is
+     * never changed by running it); strings are stored in each program's own heap.
+     *   @param context the state of the running program
+     *   @return the value represented by the literal
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        if (this.value != null) {
+            return this.value;
+        }
+        String s = this.tok.toString();
+        return new StringValue(s.substring(1, s.length() - 1), context.getHeap());
+    }
+
+    /**
+     * Accesses the literal token.
+     *   @return the token
+     */
+    public Token getToken() {
+        return this.tok;
+    }
+
+    /**
+     * Converts the literal into a String.
+     *   @return the literal token
+     */
+    public String toString() {
+        return this.tok.toString();
+    }
+}
@@ -0,0 +1,336 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Class that compiles a hot while/repeat loop into a CompiledLoop.  While and
+ * Repeat count their invocations and back edges (in a Profile kept by each
+ * ExecutionContext), and once a loop has run THRESHOLD times the interpreter
+ * asks for it to be compiled.  Only loops
+ * that compute purely with integers and booleans (variables currently holding
+ * integers, + * / % ^, comparisons, & | !, print and nested loops) are
+ * compiled; the rest stay interpreted.  The compiled code is a tree of small
+ * monomorphic closures over a long[] register file, which HotSpot inlines and
+ * compiles like ordinary Java loops.  The arithmetic is checked: a result that
+ * overflows a long makes the CompiledLoop hand the loop back to the
+ * interpreter, which promotes it to a BigIntegerValue.
+ */
+public class LoopCompiler {
+    // set -Dsilly.jit=0 to turn off loop compilation
+    public static final int THRESHOLD = Integer.getInteger("silly.jit", 1000);
+
+    private static final int INT = 1, BOOL = 2;
+
+    /**
+     * Class that holds how often a loop has run (invocations plus back edges)
+     * in one ExecutionContext, and its compiled code once it is hot.  Programs
+     * that share statement trees (see ScriptServer) each have their own, so
+     * one program never counts for, or rolls back the compiled code of, another.
+     */
+    public static class Profile {
+        private int runs;
+        private CompiledLoop compiled;
+
+        /**
+         * Counts the start of the loop, compiling it if that makes it hot.
+         *   @param loop the While or Repeat statement
+         *   @param context the state of the running program
+         *   @return the compiled loop (or null if it is not compiled)
+         */
+        public CompiledLoop enter(Statement loop, ExecutionContext context) {
+            if (++this.runs == LoopCompiler.THRESHOLD) {
+                this.compiled = LoopCompiler.compile(loop, context);
+            }
+            return this.compiled;
+        }
+
+        /**
+         * Counts a back edge of the loop, compiling it if that makes it hot.
+         *   @param loop the While or Repeat statement
+         *   @param context the state of the running program
+         *   @return the loop if it was compiled just now, else null
+         */
+        public CompiledLoop loop(Statement loop, ExecutionContext context) {
+            if (++this.runs == LoopCompiler.THRESHOLD) {
+                this.compiled = LoopCompiler.compile(loop, context);
+                return this.compiled;
+            }
+            return null;
+        }
+    }
+
+    private HashMap<Long, Integer> registers;   // (level, slot) -> register
+    private HashSet<Long> live;                 // body variables declared so far
+    private ArrayList<int[]> outer;             // {register, depth, slot} of outer variables
+    private HashSet<Integer> written;           // registers assigned in the loop
+    private int level;                          // scoped bodies entered (0 = the loop statement itself)
+    private MemorySpace memory;                 // holds the current values of the outer variables
+
+    /**
+     * Constructs a compiler for a single loop.
+     *   @param memory the memory space the loop is running in
+     */
+    private LoopCompiler(MemorySpace memory) {
+        this.memory = memory;
+        this.registers = new HashMap<Long, Integer>();
+        this.live = new HashSet<Long>();
+        this.outer = new ArrayList<int[]>();
+        this.written = new HashSet<Integer>();
+    }
+
+    /**
+     * Compiles a (resolved) loop, using the variable values currently in memory
+     * to decide which types to specialize for.
+     *   @param loop the While or Repeat statement
+     *   @param context the state of the running program
+     *   @return the compiled loop, or null if it cannot be compiled
+     */
+    public static CompiledLoop compile(Statement loop, ExecutionContext context) {
+        LoopCompiler jit = new LoopCompiler(context.getMemory());
+        try {
+            CompiledLoop.BoolCode test = null;
+            Body body;
+            if (loop instanceof While) {
+                test = jit.bool(((While) loop).getTest());
+                body = ((While) loop).getBody();
+            }
+            else {
+                body = ((Repeat) loop).getBody();
+            }
+            CompiledLoop.StmtCode code = jit.body(body);
+            return jit.finish(test, code);
+        }
+        catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Signals a statement or expression that the compiler does not handle.
+     */
+    private static class Unsupported extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private CompiledLoop finish(CompiledLoop.BoolCode test, CompiledLoop.StmtCode body) {
+        int count = this.outer.size();
+        int[] register = new int[count], depth = new int[count], slot = new int[count];
+        boolean[] assigned = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            register[i] = this.outer.get(i)[0];
+            depth[i] = this.outer.get(i)[1];
+            slot[i] = this.outer.get(i)[2];
+            assigned[i] = this.written.contains(register[i]);
+        }
+        return new CompiledLoop(test, body, this.registers.size(), register, depth, slot, assigned);
+    }
+
+    private CompiledLoop.StmtCode body(Body body) throws Unsupported {
+        if (body.isScoped()) {
+            this.level++;
+        }
+        ArrayList<Statement> stmts = body.getStatements();
+        CompiledLoop.StmtCode[] code = new CompiledLoop.StmtCode[stmts.size()];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = this.statement(stmts.get(i));
+        }
+        if (body.isScoped()) {
+            this.live.removeIf(key -> (int) (key >> 32) == this.level);
+            this.level--;
+        }
+
+        if (code.length == 1) {
+            return code[0];
+        }
+        return (regs, out) -> {
+            for (CompiledLoop.StmtCode s : code) {
+                s.run(regs, out);
+            }
+        };
+    }
+
+    private CompiledLoop.StmtCode statement(Statement stmt) throws Unsupported {
+        if (stmt instanceof Assignment) {
+            Assignment assign = (Assignment) stmt;
+            CompiledLoop.IntCode value = this.integer(assign.getExpression());
+            int reg = this.variable(assign.getDepth(), assign.getSlot());
+            this.written.add(reg);
+            return (regs, out) -> regs[reg] = value.run(regs);
+        }
+        else if (stmt instanceof Var) {
+            Assignment assign = ((Var) stmt).getAssignment();
+            CompiledLoop.IntCode value = this.integer(assign.getExpression());
+            long key = LoopCompiler.key(this.level, assign.getSlot());
+            this.live.add(key);
+            int reg = this.variable(assign.getDepth(), assign.getSlot());
+            return (regs, out) -> regs[reg] = value.run(regs);
+        }
+        else if (stmt instanceof Print) {
+            Expression expr = ((Print) stmt).getExpression();
+            if (this.typeOf(expr) == LoopCompiler.BOOL) {
+                CompiledLoop.BoolCode value = this.bool(expr);
+                return (regs, out) -> out.println(String.valueOf(value.run(regs)));
+            }
+            CompiledLoop.IntCode value = this.integer(expr);
+            return (regs, out) -> out.println(String.valueOf(value.run(regs)));
+        }
+        else if (stmt instanceof While) {
+            this.level += ((While) stmt).isScoped() ? 1 : 0;       // (its scope only holds hoisted temporaries)
+            CompiledLoop.BoolCode test = this.bool(((While) stmt).getTest());
+            CompiledLoop.StmtCode body = this.body(((While) stmt).getBody());
+            this.level -= ((While) stmt).isScoped() ? 1 : 0;
+            return (regs, out) -> {
+                while (test.run(regs)) {
+                    body.run(regs, out);
+                }
+            };
+        }
+        else if (stmt instanceof Repeat) {
+            this.level += ((Repeat) stmt).isScoped() ? 1 : 0;
+            CompiledLoop.IntCode count = this.integer(((Repeat) stmt).getCount());
+            CompiledLoop.StmtCode body = this.body(((Repeat) stmt).getBody());
+            this.level -= ((Repeat) stmt).isScoped() ? 1 : 0;
+            return (regs, out) -> {
+                for (long i = count.run(regs); i > 0; i--) {
+                    body.run(regs, out);
+                }
+            };
+        }
+        throw new Unsupported();
+    }
+
+    private int typeOf(Expression expr) {
+        if (expr instanceof Invariant) {
+            return this.typeOf(((Invariant) expr).getExpression());
+        }
+        else if (expr instanceof Literal) {
+            Token.Type type = ((Literal) expr).getToken().getType();
+            return type == Token.Type.INT_LITERAL ? LoopCompiler.INT : type == Token.Type.BOO_LITERAL ? LoopCompiler.BOOL : 0;
+        }
+        else if (expr instanceof Variable) {
+            return LoopCompiler.INT;
+        }
+        else if (expr instanceof Add || expr instanceof Multiply || expr instanceof Divide ||
+                 expr instanceof Modulo || expr instanceof Power) {
+            return LoopCompiler.INT;
+        }
+        else if (expr instanceof Compare || expr instanceof And || expr instanceof Or || expr instanceof Not) {
+            return LoopCompiler.BOOL;
+        }
+        return 0;
+    }
+
+    private CompiledLoop.IntCode integer(Expression expr) throws Unsupported {
+        if (expr instanceof Invariant) {
+            return this.integer(((Invariant) expr).getExpression());    // recomputed in registers
+        }
+        else if (expr instanceof Literal && this.typeOf(expr) == LoopCompiler.INT) {
+            long val;
+            try {
+                val = Long.parseLong(expr.toString());
+            }
+            catch (NumberFormatException e) {
+                throw new Unsupported();     // too large for a register
+            }
+            return regs -> val;
+        }
+        else if (expr instanceof Variable) {
+            int reg = this.variable(((Variable) expr).getDepth(), ((Variable) expr).getSlot());
+            return regs -> regs[reg];
+        }
+        else if (expr instanceof BinaryExpression && this.typeOf(expr) == LoopCompiler.INT) {
+            CompiledLoop.IntCode l = this.integer(((BinaryExpression) expr).getLhs());
+            CompiledLoop.IntCode r = this.integer(((BinaryExpression) expr).getRhs());
+            if (expr instanceof Add) {
+                return regs -> Math.addExact(l.run(regs), r.run(regs));
+            }
+            else if (expr instanceof Multiply) {
+                return regs -> Math.multiplyExact(l.run(regs), r.run(regs));
+            }
+            else if (expr instanceof Divide) {
+                return regs -> LoopCompiler.divide(l.run(regs), r.run(regs));
+            }
+            else if (expr instanceof Modulo) {
+                return regs -> l.run(regs) % r.run(regs);
+            }
+            return regs -> Power.exact(l.run(regs), r.run(regs));
+        }
+        throw new Unsupported();
+    }
+
+    private CompiledLoop.BoolCode bool(Expression expr) throws Unsupported {
+        if (expr instanceof Invariant) {
+            return this.bool(((Invariant) expr).getExpression());
+        }
+        else if (expr instanceof Literal && this.typeOf(expr) == LoopCompiler.BOOL) {
+            boolean val = Boolean.parseBoolean(expr.toString());
+            return regs -> val;
+        }
+        else if (expr instanceof Not) {
+            CompiledLoop.BoolCode operand = this.bool(((Not) expr).getOperand());
+            return regs -> !operand.run(regs);
+        }
+        else if (expr instanceof And || expr instanceof Or) {
+            // the right side is skipped when the left decides, as in the interpreter
+            CompiledLoop.BoolCode l = this.bool(((BinaryExpression) expr).getLhs());
+            CompiledLoop.BoolCode r = this.bool(((BinaryExpression) expr).getRhs());
+            if (expr instanceof And) {
+                return regs -> l.run(regs) && r.run(regs);
+            }
+            return regs -> l.run(regs) || r.run(regs);
+        }
+        else if (expr instanceof Compare) {
+            CompiledLoop.IntCode l = this.integer(((Compare) expr).getLhs());
+            CompiledLoop.IntCode r = this.integer(((Compare) expr).getRhs());
+            switch (((Compare) expr).getRelation()) {
+                case Compare.EQUAL:     return regs -> l.run(regs) == r.run(regs);
+                case Compare.NOT_EQUAL: return regs -> l.run(regs) != r.run(regs);
+                case Compare.GREATER:   return regs -> l.run(regs) > r.run(regs);
+                default:                return regs -> l.run(regs) < r.run(regs);
+            }
+        }
+        throw new Unsupported();
+    }
+
+    /**
+     * Finds (or allocates) the register for a variable reference in the current body.
+     */
+    private int variable(int depth, int slot) throws Unsupported {
+        int varLevel = this.level - depth;
+        long key = LoopCompiler.key(varLevel, slot);
+        if (varLevel > 0 && !this.live.contains(key)) {
+            throw new Unsupported();    // read before its declaration has run
+        }
+
+        Integer reg = this.registers.get(key);
+        if (reg == null) {
+            reg = this.registers.size();
+            this.registers.put(key, reg);
+            if (varLevel <= 0) {
+                DataValue current = this.memory.lookupValue(-varLevel, slot);
+                if (!(current instanceof IntegerValue)) {
+                    throw new Unsupported();
+                }
+                this.outer.add(new int[] { reg, -varLevel, slot });
+            }
+        }
+        return reg;
+    }
+
+    private static long divide(long a, long b) {
+        if (a == Long.MIN_VALUE && b == -1) {
+            throw new ArithmeticException("long overflow");
+        }
+        return a / b;
+    }
+
+    private static long key(int level, int slot) {
+        return ((long) level << 32) | slot;
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class that holds the results of a pure subroutine (one that prints nothing
+ * and uses no variable but its own, so its result depends only on its
+ * arguments) for one running program, keyed by the argument values.  The
+ * results used least recently are evicted once CAPACITY are held.  Results
+ * are only cached for the subroutines that memoization is turned on for (see
+ * SETTING), and are counted as hits, misses and evictions.
+ */
+public class MemoCache {
+    // set -Dsilly.memoize=all (or a comma-separated list of subroutine names) to cache the results of pure subroutines
+    public static final String SETTING = System.getProperty("silly.memoize", "");
+    // set -Dsilly.memosize=N for the most results kept per subroutine
+    public static final int CAPACITY = Math.max(Integer.getInteger("silly.memosize", 1024), 1);
+
+    private static final Object NO_ARGUMENTS = new Object();
+
+    private Sub sub;
+    private LinkedHashMap<Object, DataValue> results;
+    private long hits, misses, evictions;
+
+    /**
+     * Constructs an empty cache.
+     *   @param sub the subroutine whose results are cached
+     */
+    public MemoCache(Sub sub) {
+        this.sub = sub;
+        this.results = new LinkedHashMap<Object, DataValue>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Object, DataValue> eldest) {
+                if (this.size() > MemoCache.CAPACITY) {
+                    MemoCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Determines whether memoization is turned on for a subroutine (it is
+     * only done if the subroutine is also pure).
+     *   @param name the name of the subroutine
+     *   @return true if SETTING is "all" or lists the name, else false
+     */
+    public static boolean isRequested(Token name) {
+        if (MemoCache.SETTING.equals("all")) {
+            return true;
+        }
+        for (String requested : MemoCache.SETTING.split(",")) {
+            if (requested.strip().equals(name.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the key for the arguments pushed for a call (see MemorySpace).
+     *   @param memory the memory space holding the arguments
+     *   @param argc the number of arguments
+     *   @return the key (the argument itself, if there is just one)
+     */
+    public static Object key(MemorySpace memory, int argc) {
+        int first = memory.argumentCount() - argc;
+        if (argc == 0) {
+            return MemoCache.NO_ARGUMENTS;
+        }
+        else if (argc == 1) {
+            return memory.argument(first);
+        }
+        DataValue[] args = new DataValue[argc];
+        for (int i = 0; i < argc; i++) {
+            args[i] = memory.argument(first + i);
+        }
+        return Arrays.asList(args);
+    }
+
+    /**
+     * Finds the result of an earlier call (counting a hit or a miss).
+     *   @param key the arguments of the call (from key)
+     *   @return the result (null if it is not held)
+     */
+    public DataValue get(Object key) {
+        DataValue result = this.results.get(key);
+        if (result == null) {
+            this.misses++;
+        }
+        else {
+            this.hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Saves the result of a call (possibly evicting the least recently used one).
+     *   @param key the arguments of the call (from key)
+     *   @param result the result of the call
+     */
+    public void put(Object key, DataValue result) {
+        this.results.put(key, result);
+    }
+
+    /**
+     * Summarizes the use of the cache.
+     *   @return the subroutine's name, hit/miss/eviction counts and size
+     */
+    public String toString() {
+        return "memo " + this.sub.getName() + ": hits=" + this.hits + " misses=" + this.misses +
+               " evictions=" + this.evictions + " size=" + this.results.size();
+    }
+}
@@ -1,123 +1,207 @@
-import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Arrays;
 
 /**
  * Class that defines the memory space for the SILLY interpreter.
+ * A subroutine call pushes a frame (a pooled scope record, like any other
+ * scope) whose first slots hold the arguments, which the caller pushes onto
+ * a separate argument stack as it evaluates them.  The frame's lexical parent
+ * is the global scope, so a variable found above the current call's frame is
+ * looked up there.
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class MemorySpace {
+    // set -Dsilly.calldepth=N to allow subroutine calls nested N deep (deep calls need a larger -Xss)
+    public static final int CALL_DEPTH = Integer.getInteger("silly.calldepth", 256);
 
-    private Stack<ScopeRecord> runtimeStack;
-    private ArrayList<String> heapSpace;
+    private static final RuntimeError TOO_DEEP =
+        new RuntimeError("RUNTIME ERROR: Subroutine calls nested more than " + MemorySpace.CALL_DEPTH + " deep");
+
+    private ScopeRecord[] runtimeStack;
+    private int top;
+    private int base;                  // index of the current call's frame (0 outside of calls)
+    private int calls;                 // number of calls in progress
+    private DataValue[] arguments;     // evaluated by callers, not yet passed
+    private int argumentCount;
+    private StringTable heapSpace;
 
     /**
      * Constructs an empty memory space.
      */
     public MemorySpace() {
-        this.runtimeStack = new Stack<ScopeRecord>();
-        this.runtimeStack.push(new ScopeRecord(null));
-        this.heapSpace = new ArrayList<String>();
+        this.runtimeStack = new ScopeRecord[16];
+        this.runtimeStack[0] = new ScopeRecord(0);
+        this.top = 0;
+        this.arguments = new DataValue[16];
+        this.heapSpace = new StringTable();
     }
 
     /**
-     * Adds a new scope to the top of the runtime stack (linked to previous top).
+     * Adds a new scope to the top of the runtime stack.  The scope records
+     * above the top are kept (cleared) and reused, so a loop that enters the
+     * same scope repeatedly does not allocate a new record each time.
+     *   @param size the number of slots needed by the scope
      */
-    public void beginScope() {
-        this.runtimeStack.push(new ScopeRecord(this.runtimeStack.peek()));
+    public void beginScope(int size) {
+        if (this.top + 1 == this.runtimeStack.length) {
+            this.runtimeStack = Arrays.copyOf(this.runtimeStack, 2 * this.runtimeStack.length);
+        }
+        ScopeRecord pooled = this.runtimeStack[++this.top];
+        if (pooled == null) {
+            this.runtimeStack[this.top] = new ScopeRecord(size);
+        }
+        else {
+            pooled.reuse(size);
+        }
     }
 
     /**
      * Removes the current scope from the top of the runtime stack.
      */
     public void endScope() {
-        this.runtimeStack.pop();
+        this.runtimeStack[this.top--].clear();
     }
 
     /**
-     * Declares a variable in local scope (without storing an actual value).
-     *   @param variable the variable to be declared
+     * Removes scopes from the runtime stack until the given depth is reached.
+     *   @param depth the index in the runtime stack of the scope to return to
      */
-    public void declareVariable(Token variable) {
-        this.runtimeStack.peek().storeInScope(variable, null);
+    public void unwindTo(int depth) {
+        while (this.top > depth) {
+            this.endScope();
+        }
     }
 
     /**
-     * Determines if a variable is already declared.
-     * @param variable the variable to be found
-     * @return true if it is declared and/or assigned; else, false
+     * Adds an argument for the next subroutine call.
+     *   @param val the value of the argument
      */
-    public boolean isDeclared(Token variable) {
-        return (this.findScopeinStack(variable) != null);
+    public void pushArgument(DataValue val) {
+        if (this.argumentCount == this.arguments.length) {
+            this.arguments = Arrays.copyOf(this.arguments, 2 * this.arguments.length);
+        }
+        this.arguments[this.argumentCount++] = val;
     }
 
     /**
-     * Stores a variable/value in the runtime stack.
-     *   @param variable the variable name
-     *   @param val the value to be stored under that name
+     * Determines how many arguments have been pushed (and not yet passed).
+     *   @return the size of the argument stack
      */
-    public void storeValue(Token variable, DataValue val) {
-        this.findScopeinStack(variable).storeInScope(variable, val);
+    public int argumentCount() {
+        return this.argumentCount;
     }
 
     /**
-     * Determines the value associated with a variable in memory.
-     *   @param variable the variable to look up
-     *   @return the value associated with that variable
+     * Accesses an argument pushed (and not yet passed).
+     *   @param index the position of the argument on the argument stack
+     *   @return the value of that argument
      */
-    public DataValue lookupValue(Token variable) {
-        return this.findScopeinStack(variable).lookupInScope(variable);
+    public DataValue argument(int index) {
+        return this.arguments[index];
     }
 
     /**
-     * Stores a string value in the heap (if not already stored), returns its index.
-     * @param str the string being added
-     * @return its index in the heap list
+     * Discards the arguments pushed for a call that is not going to happen
+     * (because evaluating a later argument failed).
+     *   @param count the argument count (from argumentCount) to return to
      */
-    public int heapStore(String str) {
-        for (int i = 0; i < heapSpace.size(); i++) {
-            if (str.equals(heapSpace.get(i))) {
-                return i;
-            }
+    public void dropArguments(int count) {
+        Arrays.fill(this.arguments, count, this.argumentCount, null);
+        this.argumentCount = count;
+    }
+
+    /**
+     * Starts a subroutine call: pushes its frame and moves the last arguments
+     * pushed into its first slots.  Frames are pooled like other scopes, so a
+     * call only allocates the first time the runtime stack gets that deep.
+     *   @param size the number of slots in the subroutine's frame
+     *   @param argc the number of arguments it takes
+     *   @return the frame of the caller (to be passed to endCall)
+     *   @throws Exception if calls are already nested CALL_DEPTH deep
+     */
+    public int beginCall(int size, int argc) throws Exception {
+        if (this.calls == MemorySpace.CALL_DEPTH) {
+            this.dropArguments(this.argumentCount - argc);
+            throw MemorySpace.tooDeep();
         }
-        heapSpace.add(str);
-        return heapSpace.size() - 1;
+        this.beginScope(size);
+        ScopeRecord frame = this.runtimeStack[this.top];
+        this.argumentCount -= argc;
+        for (int i = 0; i < argc; i++) {
+            frame.storeInScope(i, this.arguments[this.argumentCount + i]);
+            this.arguments[this.argumentCount + i] = null;
+        }
+        this.calls++;
+        int caller = this.base;
+        this.base = this.top;
+        return caller;
     }
 
     /**
-     * Look up a string value in the heap.
-     * @param index the index in the heap list
-     * @return the string value stored at that index
+     * Ends the current subroutine call, removing its frame (and any scopes
+     * left above it by an error).
+     *   @param caller the frame of the caller (from beginCall)
      */
-    public String heapLookup(int index) {
-        return heapSpace.get(index);
+    public void endCall(int caller) {
+        this.unwindTo(this.base - 1);
+        this.base = caller;
+        this.calls--;
     }
 
     /**
-     * @param variable the variable being searched for
-     * @returns true if the specified token is declared within the current scope
+     * Accesses the (preallocated) error for calls nested too deep (by the
+     * CALL_DEPTH limit, or by the size of the Java stack running them).
+     *   @return the error
      */
+    public static RuntimeError tooDeep() {
+        return MemorySpace.TOO_DEEP;
+    }
 
-    public boolean isLocal(Token variable) {
-        if (this.runtimeStack.peek().declaredInScope(variable)) {
-            return true;
-        }
+    /**
+     * Stores a value in the runtime stack.
+     *   @param depth the number of scopes out from the current one (from the Resolver)
+     *   @param slot the slot within that scope (from the Resolver)
+     *   @param val the value to be stored
+     */
+    public void storeValue(int depth, int slot, DataValue val) {
+        int scope = this.top - depth;
+        this.runtimeStack[scope < this.base ? 0 : scope].storeInScope(slot, val);
+    }
 
-        return false;
+    /**
+     * Determines the value stored in the runtime stack.
+     *   @param depth the number of scopes out from the current one (from the Resolver)
+     *   @param slot the slot within that scope (from the Resolver)
+     *   @return the value stored there
+     */
+    public DataValue lookupValue(int depth, int slot) {
+        int scope = this.top - depth;
+        return this.runtimeStack[scope < this.base ? 0 : scope].lookupInScope(slot);
     }
 
-    /////////////////////////////////////////////////////////////////////////////
+    /**
+     * Stores a string value in the heap (if not already stored), returns its index.
+     * @param str the string being added
+     * @return its index in the heap list
+     */
+    public int heapStore(String str) {
+        return heapSpace.intern(str);
+    }
 
     /**
-     * Locates the Scope in the stackSegment that contains the specified variable.
-     * @param variable the variable being searched for
-     * @return the Scope containing that variable
+     * Look up a string value in the heap.
+     * @param index the index in the heap list
+     * @return the string value stored at that index
      */
-    private ScopeRecord findScopeinStack(Token variable) {
-        ScopeRecord stepper = this.runtimeStack.peek();
-        while (stepper != null && !stepper.declaredInScope(variable)) {
-            stepper = stepper.getParentScope();
-        }
-        return stepper;
+    public String heapLookup(int index) {
+        return heapSpace.lookup(index);
+    }
+
+    /**
+     * Accesses the heap's string table (e.g., for its size/collision statistics).
+     * @return the string table backing the heap
+     */
+    public StringTable getHeap() {
+        return heapSpace;
     }
 }
@@ -0,0 +1,46 @@
+/**
+ * Derived class that represents the remainder operator, (x % y), in the SILLY language.
+ */
+public class Modulo extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Modulo(Expression lhs, Expression rhs) {
+        super(lhs, Token.PERCENT, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Modulo.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the remainder of two integers.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the resulting integer value
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() != DataValue.Type.INTEGER || r.getType() != DataValue.Type.INTEGER) {
+            throw BinaryExpression.mismatch();
+        }
+        if (l instanceof IntegerValue && r instanceof IntegerValue) {
+            long b = r.asLong();
+            if (b == 0) {
+                throw RuntimeError.DIVIDE_BY_ZERO;
+            }
+            return IntegerValue.valueOf(l.asLong() % b);
+        }
+        else if (r.compareTo(IntegerValue.valueOf(0)) == 0) {
+            throw RuntimeError.DIVIDE_BY_ZERO;
+        }
+        return BigIntegerValue.valueOf(BigIntegerValue.toBigInteger(l).remainder(BigIntegerValue.toBigInteger(r)));
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Derived class that represents multiplication, (x * y), in the SILLY language.
+ */
+public class Multiply extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Multiply(Expression lhs, Expression rhs) {
+        super(lhs, Token.STAR, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Multiply.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the product of two integers.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the resulting integer value
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() != DataValue.Type.INTEGER || r.getType() != DataValue.Type.INTEGER) {
+            throw BinaryExpression.mismatch();
+        }
+        if (l instanceof IntegerValue && r instanceof IntegerValue) {
+            long a = l.asLong(), b = r.asLong(), product = a * b;
+            if (Math.multiplyHigh(a, b) == product >> 63) {    // no overflow
+                return IntegerValue.valueOf(product);
+            }
+        }
+        return BigIntegerValue.valueOf(BigIntegerValue.toBigInteger(l).multiply(BigIntegerValue.toBigInteger(r)));
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Derived class that represents a boolean negation, (! x), in the SILLY language.
+ */
+public class Not extends UnaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param operand the operand expression
+     */
+    public Not(Expression operand) {
+        super(Token.NOT, operand);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Not.apply(this.operand.evaluate(context));
+    }
+
+    /**
+     * Evaluates the negation.
+     *   @param val the operand value
+     *   @return the opposite of the operand's boolean value
+     */
+    public static DataValue apply(DataValue val) throws Exception {
+        if (val.getType() != DataValue.Type.BOOLEAN) {
+            throw UnaryExpression.mismatch();
+        }
+        return BooleanValue.valueOf(!val.asBoolean());
+    }
+}
@@ -0,0 +1,436 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Class that simplifies a statement before it is resolved and run.  Operators
+ * whose operands are all literals are evaluated once and replaced by a literal
+ * of the result, (x + 0), (x * 1), (x / 1), (x ^ 1), (b & true), (b | false)
+ * and (! (! b)) become x (or b) when x is sure to be an integer (b a boolean),
+ * (false & x) and (true | x) become false and true (x is never evaluated),
+ * and while loops whose test is false (and repeat loops whose count is not
+ * positive) are dropped from the bodies they appear in.  An operator that
+ * fails when evaluated (e.g., (1 / 0)) is left in place, so the error is
+ * still reported when and where it would have been.
+ * Then, in each while/repeat loop (outermost first), the largest operator
+ * expressions that use no variable assigned (or declared) anywhere in the
+ * loop are hoisted into Invariant nodes, which evaluate them once per run of
+ * the loop.  A subroutine's statements are optimized like top-level ones, and
+ * nothing is hoisted from a loop that calls a subroutine (which may assign any
+ * global variable).  Profiled nodes are not looked into, so a profiled program
+ * runs exactly as written.
+ */
+public class Optimizer {
+    // set -Dsilly.optimize=false to run statements exactly as parsed
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("silly.optimize", "true"));
+
+    private ExecutionContext scratch;    // the context constant operators are evaluated in (once there is one)
+    private int temporaries;             // hidden temporaries named so far (in this statement, so nested loops' never clash)
+
+    /**
+     * Constructs an optimizer (the scratch context is only created when an
+     * operator is folded, so most statements never pay for one).
+     */
+    private Optimizer() {
+    }
+
+    /**
+     * Optimizes a (parsed, not yet resolved) statement.
+     *   @param stmt the statement
+     *   @return the equivalent optimized statement (stmt itself if optimizing is turned off)
+     */
+    public static Statement optimize(Statement stmt) {
+        if (!Optimizer.ENABLED) {
+            return stmt;
+        }
+        Optimizer optimizer = new Optimizer();
+        return optimizer.hoist(optimizer.statement(stmt));
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private Statement statement(Statement stmt) {
+        if (stmt instanceof Var) {
+            return new Var(this.assignment(((Var) stmt).getAssignment()));
+        }
+        else if (stmt instanceof Assignment) {
+            return this.assignment((Assignment) stmt);
+        }
+        else if (stmt instanceof Print) {
+            return new Print(this.expression(((Print) stmt).getExpression()));
+        }
+        else if (stmt instanceof While) {
+            return new While(this.expression(((While) stmt).getTest()), this.body(((While) stmt).getBody()));
+        }
+        else if (stmt instanceof Repeat) {
+            return new Repeat(this.expression(((Repeat) stmt).getCount()), this.body(((Repeat) stmt).getBody()));
+        }
+        else if (stmt instanceof Sub) {
+            Sub sub = (Sub) stmt;
+            return new Sub(sub.getName(), sub.getParameters(), this.body(sub.getBody()));
+        }
+        else if (stmt instanceof Call) {
+            return new Call(this.call(((Call) stmt).getCall()));
+        }
+        return stmt;
+    }
+
+    private Assignment assignment(Assignment assign) {
+        return new Assignment(assign.getVariable(), this.expression(assign.getExpression()));
+    }
+
+    private CallExpression call(CallExpression call) {
+        ArrayList<Expression> args = new ArrayList<Expression>();
+        for (Expression arg : call.getArguments()) {
+            args.add(this.expression(arg));
+        }
+        return new CallExpression(call.getName(), args);
+    }
+
+    private Body body(Body body) {
+        ArrayList<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s : body.getStatements()) {
+            Statement optimized = this.statement(s);
+            if (!Optimizer.isDead(optimized)) {
+                stmts.add(optimized);
+            }
+        }
+        return new Body(stmts);
+    }
+
+    /**
+     * Determines whether a loop can never run its body.
+     */
+    private static boolean isDead(Statement stmt) {
+        if (stmt instanceof While) {
+            return ((While) stmt).getTest() instanceof Literal &&
+                   ((Literal) ((While) stmt).getTest()).getToken() == Token.FALSE;
+        }
+        else if (stmt instanceof Repeat && ((Repeat) stmt).getCount() instanceof Literal) {
+            Token count = ((Literal) ((Repeat) stmt).getCount()).getToken();
+            return count.getType() == Token.Type.INT_LITERAL && new BigInteger(count.toString()).signum() <= 0;
+        }
+        return false;
+    }
+
+    private Expression expression(Expression expr) {
+        if (expr instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expr;
+            Expression operand = this.expression(unary.getOperand());
+            if (unary instanceof Not && operand instanceof Not &&
+                Optimizer.isBoolean(((Not) operand).getOperand())) {
+                return ((Not) operand).getOperand();
+            }
+            return this.fold(Expression.unary(unary.getOperator(), operand), operand);
+        }
+        else if (expr instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expr;
+            Expression lhs = this.expression(binary.getLhs());
+            Expression rhs = this.expression(binary.getRhs());
+            Expression identity = Optimizer.identity(binary, lhs, rhs);
+            if (identity != null) {
+                return identity;
+            }
+            return this.fold(Expression.binary(lhs, binary.getOperator(), rhs), lhs, rhs);
+        }
+        else if (expr instanceof ListLiteral) {
+            ArrayList<Expression> items = new ArrayList<Expression>();
+            for (Expression item : ((ListLiteral) expr).getItems()) {
+                items.add(this.expression(item));
+            }
+            return new ListLiteral(items);
+        }
+        else if (expr instanceof CallExpression) {
+            return this.call((CallExpression) expr);
+        }
+        return expr;
+    }
+
+    /**
+     * Replaces an operator whose operands are all literals with a literal of
+     * its value (unless evaluating it fails, or its value is a list).
+     */
+    private Expression fold(Expression expr, Expression... operands) {
+        for (Expression operand : operands) {
+            if (!(operand instanceof Literal)) {
+                return expr;
+            }
+        }
+
+        if (this.scratch == null) {
+            this.scratch = new ExecutionContext(null);
+        }
+        DataValue value;
+        try {
+            value = expr.evaluate(this.scratch);
+        }
+        catch (Exception e) {
+            return expr;
+        }
+        if (value.getType() == DataValue.Type.INTEGER) {
+            return new Literal(Token.of(value.toString()));
+        }
+        else if (value.getType() == DataValue.Type.BOOLEAN) {
+            return new Literal(value.asBoolean() ? Token.TRUE : Token.FALSE);
+        }
+        else if (value.getType() == DataValue.Type.STRING) {
+            return new Literal(Token.of("\"" + value.getValue() + "\""));
+        }
+        return expr;
+    }
+
+    /**
+     * Finds the operand an operator can be replaced by, if it is an identity
+     * (e.g., x for (x + 0) when x is sure to be an integer), else null.
+     */
+    private static Expression identity(BinaryExpression op, Expression lhs, Expression rhs) {
+        if (op instanceof Add) {
+            return Optimizer.unit(lhs, rhs, "0", true);
+        }
+        else if (op instanceof Multiply) {
+            return Optimizer.unit(lhs, rhs, "1", true);
+        }
+        else if (op instanceof Divide || op instanceof Power) {
+            return Optimizer.isLiteral(rhs, "1") && Optimizer.isInteger(lhs) ? lhs : null;
+        }
+        else if (op instanceof And) {
+            // (false & x) is false without evaluating x
+            return Optimizer.isLiteral(lhs, "false") ? lhs : Optimizer.unit(lhs, rhs, "true", false);
+        }
+        else if (op instanceof Or) {
+            return Optimizer.isLiteral(lhs, "true") ? lhs : Optimizer.unit(lhs, rhs, "false", false);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the operand of a commutative operator that is left when the other
+     * is its unit (and is sure to be an integer or boolean), else null.
+     */
+    private static Expression unit(Expression lhs, Expression rhs, String unit, boolean integer) {
+        if (Optimizer.isLiteral(rhs, unit) && (integer ? Optimizer.isInteger(lhs) : Optimizer.isBoolean(lhs))) {
+            return lhs;
+        }
+        else if (Optimizer.isLiteral(lhs, unit) && (integer ? Optimizer.isInteger(rhs) : Optimizer.isBoolean(rhs))) {
+            return rhs;
+        }
+        return null;
+    }
+
+    private static boolean isLiteral(Expression expr, String text) {
+        return expr instanceof Literal && ((Literal) expr).getToken().toString().equals(text);
+    }
+
+    /**
+     * Determines whether an expression evaluates to an integer whenever it
+     * does not fail.
+     */
+    private static boolean isInteger(Expression expr) {
+        if (expr instanceof Literal) {
+            return ((Literal) expr).getToken().getType() == Token.Type.INT_LITERAL;
+        }
+        else if (expr instanceof Add) {
+            return Optimizer.isInteger(((Add) expr).getLhs()) || Optimizer.isInteger(((Add) expr).getRhs());
+        }
+        return expr instanceof Multiply || expr instanceof Divide || expr instanceof Modulo ||
+               expr instanceof Power || expr instanceof Length;
+    }
+
+    /**
+     * Determines whether an expression evaluates to a boolean whenever it
+     * does not fail.
+     */
+    private static boolean isBoolean(Expression expr) {
+        if (expr instanceof Literal) {
+            return ((Literal) expr).getToken().getType() == Token.Type.BOO_LITERAL;
+        }
+        return expr instanceof Compare || expr instanceof And || expr instanceof Or || expr instanceof Not;
+    }
+
+    /**
+     * Hoists the invariant expressions out of a loop (and then out of the
+     * loops nested in it); other statements are returned as they are.
+     */
+    private Statement hoist(Statement stmt) {
+        if (stmt instanceof Sub) {
+            Sub sub = (Sub) stmt;
+            ArrayList<Statement> stmts = new ArrayList<Statement>();
+            for (Statement s : sub.getBody().getStatements()) {
+                stmts.add(this.hoist(s));
+            }
+            return new Sub(sub.getName(), sub.getParameters(), new Body(stmts));
+        }
+        else if (!(stmt instanceof While) && !(stmt instanceof Repeat)) {
+            return stmt;
+        }
+        Body body = stmt instanceof While ? ((While) stmt).getBody() : ((Repeat) stmt).getBody();
+        HashSet<Token> assigned = new HashSet<Token>();
+        Optimizer.assignedIn(body, assigned);
+
+        ArrayList<Invariant> found = new ArrayList<Invariant>();
+        ArrayList<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s : body.getStatements()) {
+            stmts.add(this.hoist(this.rewrite(s, assigned, found)));
+        }
+        if (stmt instanceof While) {
+            Expression test = this.invariants(((While) stmt).getTest(), assigned, found);
+            return new While(test, new Body(stmts), found.toArray(new Invariant[0]));
+        }
+        return new Repeat(((Repeat) stmt).getCount(), new Body(stmts), found.toArray(new Invariant[0]));
+    }
+
+    /**
+     * Collects the variables assigned or declared in a body (including in nested loops).
+     */
+    private static void assignedIn(Body body, HashSet<Token> assigned) {
+        for (Statement s : body.getStatements()) {
+            if (s instanceof Var) {
+                assigned.add(((Var) s).getAssignment().getVariable());
+                Optimizer.callsIn(((Var) s).getAssignment().getExpression(), assigned);
+            }
+            else if (s instanceof Assignment) {
+                assigned.add(((Assignment) s).getVariable());
+                Optimizer.callsIn(((Assignment) s).getExpression(), assigned);
+            }
+            else if (s instanceof Print) {
+                Optimizer.callsIn(((Print) s).getExpression(), assigned);
+            }
+            else if (s instanceof While) {
+                Optimizer.callsIn(((While) s).getTest(), assigned);
+                Optimizer.assignedIn(((While) s).getBody(), assigned);
+            }
+            else if (s instanceof Repeat) {
+                Optimizer.callsIn(((Repeat) s).getCount(), assigned);
+                Optimizer.assignedIn(((Repeat) s).getBody(), assigned);
+            }
+            else if (s instanceof Break || s instanceof Exit) {
+                continue;
+            }
+            else {
+                assigned.add(null);    // a statement that is not looked into (e.g., profiled or a call) may assign anything
+            }
+        }
+    }
+
+    /**
+     * Adds null to assigned if an expression calls a subroutine (which may assign anything).
+     */
+    private static void callsIn(Expression expr, HashSet<Token> assigned) {
+        if (expr instanceof CallExpression) {
+            assigned.add(null);
+        }
+        else if (expr instanceof UnaryExpression) {
+            Optimizer.callsIn(((UnaryExpression) expr).getOperand(), assigned);
+        }
+        else if (expr instanceof BinaryExpression) {
+            Optimizer.callsIn(((BinaryExpression) expr).getLhs(), assigned);
+            Optimizer.callsIn(((BinaryExpression) expr).getRhs(), assigned);
+        }
+        else if (expr instanceof ListLiteral) {
+            for (Expression item : ((ListLiteral) expr).getItems()) {
+                Optimizer.callsIn(item, assigned);
+            }
+        }
+        else if (!(expr instanceof Literal) && !(expr instanceof Variable) && !(expr instanceof Invariant)) {
+            assigned.add(null);    // (e.g., profiled)
+        }
+    }
+
+    /**
+     * Rebuilds a statement inside a loop with its invariant expressions hoisted.
+     */
+    private Statement rewrite(Statement stmt, HashSet<Token> assigned, ArrayList<Invariant> found) {
+        if (stmt instanceof Var) {
+            return new Var(this.rewrite(((Var) stmt).getAssignment(), assigned, found));
+        }
+        else if (stmt instanceof Assignment) {
+            return this.rewrite((Assignment) stmt, assigned, found);
+        }
+        else if (stmt instanceof Print) {
+            return new Print(this.invariants(((Print) stmt).getExpression(), assigned, found));
+        }
+        else if (stmt instanceof While) {
+            return new While(this.invariants(((While) stmt).getTest(), assigned, found),
+                             this.rewrite(((While) stmt).getBody(), assigned, found));
+        }
+        else if (stmt instanceof Repeat) {
+            return new Repeat(this.invariants(((Repeat) stmt).getCount(), assigned, found),
+                              this.rewrite(((Repeat) stmt).getBody(), assigned, found));
+        }
+        return stmt;
+    }
+
+    private Assignment rewrite(Assignment assign, HashSet<Token> assigned, ArrayList<Invariant> found) {
+        return new Assignment(assign.getVariable(), this.invariants(assign.getExpression(), assigned, found));
+    }
+
+    private Body rewrite(Body body, HashSet<Token> assigned, ArrayList<Invariant> found) {
+        ArrayList<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s : body.getStatements()) {
+            stmts.add(this.rewrite(s, assigned, found));
+        }
+        return new Body(stmts);
+    }
+
+    /**
+     * Replaces the largest invariant operator expressions within an
+     * expression by Invariant nodes (adding them to found).
+     */
+    private Expression invariants(Expression expr, HashSet<Token> assigned, ArrayList<Invariant> found) {
+        boolean operator = expr instanceof UnaryExpression || expr instanceof BinaryExpression || expr instanceof ListLiteral;
+        if (!operator) {
+            return expr;
+        }
+        else if (Optimizer.isInvariant(expr, assigned)) {
+            Invariant inv = new Invariant(expr, Token.of("loop temporary " + ++this.temporaries));
+            found.add(inv);
+            return inv;
+        }
+        else if (expr instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expr;
+            return Expression.unary(unary.getOperator(), this.invariants(unary.getOperand(), assigned, found));
+        }
+        else if (expr instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expr;
+            return Expression.binary(this.invariants(binary.getLhs(), assigned, found), binary.getOperator(),
+                                     this.invariants(binary.getRhs(), assigned, found));
+        }
+        ArrayList<Expression> items = new ArrayList<Expression>();
+        for (Expression item : ((ListLiteral) expr).getItems()) {
+            items.add(this.invariants(item, assigned, found));
+        }
+        return new ListLiteral(items);
+    }
+
+    /**
+     * Determines whether an expression uses no variable in assigned (and
+     * holds nothing that is not looked into).
+     */
+    private static boolean isInvariant(Expression expr, HashSet<Token> assigned) {
+        if (assigned.contains(null)) {
+            return false;
+        }
+        else if (expr instanceof Literal || expr instanceof Invariant) {
+            return true;     // (an expression hoisted from an enclosing loop is invariant here too)
+        }
+        else if (expr instanceof Variable) {
+            return !assigned.contains(((Variable) expr).getToken());
+        }
+        else if (expr instanceof UnaryExpression) {
+            return Optimizer.isInvariant(((UnaryExpression) expr).getOperand(), assigned);
+        }
+        else if (expr instanceof BinaryExpression) {
+            return Optimizer.isInvariant(((BinaryExpression) expr).getLhs(), assigned) &&
+                   Optimizer.isInvariant(((BinaryExpression) expr).getRhs(), assigned);
+        }
+        else if (expr instanceof ListLiteral) {
+            for (Expression item : ((ListLiteral) expr).getItems()) {
+                if (!Optimizer.isInvariant(item, assigned)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
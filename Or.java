@@ -0,0 +1,45 @@
+/**
+ * Derived class that represents a boolean disjunction, (x | y), in the SILLY language.
+ * The right operand is not evaluated when the left one is true.
+ */
+public class Or extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Or(Expression lhs, Expression rhs) {
+        super(lhs, Token.OR, rhs);
+    }
+
+    /**
+     * Evaluates the current expression, skipping the right operand if the
+     * left one is true.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        DataValue l = this.lhs.evaluate(context);
+        if (l.getType() == DataValue.Type.BOOLEAN && l.asBoolean()) {
+            return l;
+        }
+        return Or.apply(l, this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the disjunction of two boolean values.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return true if either value is true (false for non-boolean operands)
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() != r.getType()) {
+            throw BinaryExpression.mismatch();
+        }
+        if (r.getType() != DataValue.Type.BOOLEAN) {
+            return BooleanValue.valueOf(false);
+        }
+        return BooleanValue.valueOf(l.asBoolean() || r.asBoolean());
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class that buffers the interpreter's output and writes it to a channel in
+ * large blocks, instead of locking and flushing System.out for every line.
+ * Everything the interpreter prints goes through one sink, in order, so the
+ * output is the same as printing each line directly; only the moments it is
+ * written out depend on the flush policy.
+ */
+public class OutputSink {
+    public static enum Flush { LINE, FULL }    // after every line, or only when the buffer fills (and on flush)
+
+    private static final int CAPACITY = Integer.getInteger("silly.outbuf", 64 * 1024);
+
+    private WritableByteChannel channel;
+    private ByteBuffer buffer;
+    private Charset charset;
+    private OutputSink.Flush policy;
+
+    /**
+     * Constructs a sink writing to a channel.
+     *   @param channel the channel written to
+     *   @param charset the encoding of the output
+     *   @param policy when the buffered output is written
+     */
+    public OutputSink(WritableByteChannel channel, Charset charset, OutputSink.Flush policy) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(OutputSink.CAPACITY);
+        this.charset = charset;
+        this.policy = policy;
+    }
+
+    /**
+     * Creates a sink writing to standard output (bypassing System.out).
+     *   @param policy when the buffered output is written
+     *   @return the sink
+     */
+    public static OutputSink standard(OutputSink.Flush policy) {
+        return new OutputSink(Channels.newChannel(new FileOutputStream(FileDescriptor.out)),
+                              Charset.defaultCharset(), policy);
+    }
+
+    /**
+     * Creates the sink for the interpreter: standard output, or the file named
+     * by -Dsilly.output (written through its FileChannel).  -Dsilly.flush=line
+     * or full overrides the default policy.
+     *   @param interactive whether input is typed (which defaults to flushing every line)
+     *   @return the sink
+     */
+    public static OutputSink create(boolean interactive) throws IOException {
+        OutputSink.Flush policy = interactive ? OutputSink.Flush.LINE : OutputSink.Flush.FULL;
+        String flush = System.getProperty("silly.flush");
+        if (flush != null) {
+            policy = OutputSink.Flush.valueOf(flush.toUpperCase());
+        }
+
+        String file = System.getProperty("silly.output");
+        if (file != null) {
+            FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new OutputSink(channel, Charset.defaultCharset(), policy);
+        }
+        return OutputSink.standard(policy);
+    }
+
+    /**
+     * Adds text to the output.
+     *   @param str the text
+     */
+    public void print(String str) {
+        byte[] bytes = str.getBytes(this.charset);
+        if (bytes.length > this.buffer.remaining()) {
+            this.flush();
+            if (bytes.length > this.buffer.capacity()) {
+                this.write(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        this.buffer.put(bytes);
+    }
+
+    /**
+     * Adds a line of text to the output.
+     *   @param str the text (without the line separator)
+     */
+    public void println(String str) {
+        this.print(str);
+        this.print(System.lineSeparator());
+        if (this.policy == OutputSink.Flush.LINE) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Adds complete lines of text to the output.
+     *   @param lines the text (each line ending with the line separator)
+     */
+    public void printLines(String lines) {
+        this.print(lines);
+        if (this.policy == OutputSink.Flush.LINE) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes out all buffered output.
+     */
+    public void flush() {
+        this.buffer.flip();
+        this.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes out all buffered output and closes the channel (unless it is
+     * standard output).
+     */
+    public void close() throws IOException {
+        this.flush();
+        if (this.channel instanceof FileChannel) {
+            this.channel.close();
+        }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void write(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                this.channel.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
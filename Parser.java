@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Class that parses SILLY programs into statement trees.  Statements are
+ * dispatched on their first token through a table of constructors (keyword
+ * tokens are shared instances, so the table is keyed by identity).  A whole
+ * program is parsed in one pass; a syntax error is recorded with its position
+ * and parsing resumes at the next statement keyword, so every error in the
+ * program can be reported together.
+ */
+public class Parser {
+    private interface StatementReader {
+        Statement read(TokenStream input) throws Exception;
+    }
+
+    private static IdentityHashMap<Token, StatementReader> readers = new IdentityHashMap<Token, StatementReader>();
+    static {
+        Parser.readers.put(Token.VAR, Var::new);
+        Parser.readers.put(Token.PRINT, Print::new);
+        Parser.readers.put(Token.WHILE, While::new);
+        Parser.readers.put(Token.REPEAT, Repeat::new);
+        Parser.readers.put(Token.SUB, Sub::new);
+        Parser.readers.put(Token.CALL, Call::new);
+        Parser.readers.put(Token.BREAK, Break::new);
+        Parser.readers.put(Token.EXIT, Exit::new);
+    }
+
+    private TokenStream input;
+    private ArrayList<String> errors;
+
+    /**
+     * Constructs a parser reading from a TokenStream.
+     *   @param input the stream the program is read from
+     */
+    public Parser(TokenStream input) {
+        this.input = input;
+        this.errors = new ArrayList<String>();
+    }
+
+    /**
+     * Reads in an arbitrary statement.
+     *   @param input the TokenStream from which the program is read
+     *   @return the next Statement in the program (wrapped if a Profiler is active)
+     */
+    public static Statement statement(TokenStream input) throws Exception {
+        Token first = input.lookAhead();
+        StatementReader reader = Parser.readers.get(first);
+        Statement stmt;
+        if (reader != null) {
+            stmt = reader.read(input);
+        }
+        else if (first.getType() == Token.Type.IDENTIFIER) {
+            stmt = new Assignment(input);
+        }
+        else {
+            throw new Exception("SYNTAX ERROR: Unknown statement type (" + first + ")");
+        }
+
+        if (Profiler.ACTIVE != null) {
+            return Profiler.ACTIVE.wrap(stmt);
+        }
+        return stmt;
+    }
+
+    /**
+     * Reads in the rest of the program.
+     *   @return the statements of the program, in order (an unmodifiable list)
+     *   @throws Exception listing every syntax error found (one per line)
+     */
+    public List<Statement> parseProgram() throws Exception {
+        ArrayList<Statement> program = new ArrayList<Statement>();
+        while (this.input.hasNext()) {
+            this.input.lookAhead();
+            int line = this.input.getLine(), column = this.input.getColumn();
+            try {
+                program.add(Parser.statement(this.input));
+            }
+            catch (Exception e) {
+                String msg = e.getMessage() != null ? e.getMessage() : e.toString();
+                this.errors.add(msg + " (line " + this.input.getLine() + ", column " + this.input.getColumn() + ")");
+                this.synchronize(line, column);
+            }
+        }
+
+        if (!this.errors.isEmpty()) {
+            throw new Exception(String.join("\n", this.errors));
+        }
+        return Collections.unmodifiableList(program);
+    }
+
+    /**
+     * Accesses the syntax errors found so far.
+     *   @return the error messages (with positions), in the order found
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(this.errors);
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Skips ahead after a syntax error to the next statement keyword, or to an
+     * identifier that starts a later line (an assignment, presumably).  If the
+     * failed statement consumed nothing, its first token is skipped, so parsing
+     * always makes progress.
+     *   @param startLine the line the failed statement started on
+     *   @param startColumn the column the failed statement started in
+     */
+    private void synchronize(int startLine, int startColumn) {
+        int line = this.input.getLine();    // where the error was found
+        if (this.input.hasNext()) {
+            this.input.lookAhead();
+            if (this.input.getLine() == startLine && this.input.getColumn() == startColumn) {
+                this.input.next();
+                line = startLine;
+            }
+        }
+        while (this.input.hasNext()) {
+            Token next = this.input.lookAhead();
+            if (next.getType() == Token.Type.STATEMENT ||
+                (next.getType() == Token.Type.IDENTIFIER && this.input.getLine() > line)) {
+                return;
+            }
+            line = this.input.getLine();
+            this.input.next();
+        }
+    }
+}
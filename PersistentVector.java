@@ -0,0 +1,143 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that represents an immutable list of values as a 32-way trie plus a
+ * tail buffer (the last 1-32 items).  Appending copies only the tail or the
+ * path to it, so a new vector shares almost all of its structure with the old
+ * one, and get is O(log32 n).
+ */
+public class PersistentVector extends AbstractList<DataValue> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] NO_ITEMS = new Object[0];
+
+    public static final PersistentVector EMPTY = new PersistentVector(0, BITS, new Object[WIDTH], NO_ITEMS);
+
+    private final int size;
+    private final int shift;       // BITS * (height of the trie)
+    private final Object[] root;   // interior nodes hold Object[] children, leaves hold values
+    private final Object[] tail;
+
+    /**
+     * Constructs a vector from its parts.
+     */
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Accesses the number of items.
+     *   @return the size of the vector
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Accesses the item at an index.
+     *   @param index the index (starting at 0)
+     *   @return the item at that index
+     */
+    public DataValue get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.size);
+        }
+        if (index >= this.tailOffset()) {
+            return (DataValue) this.tail[index & MASK];
+        }
+        Object[] node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (DataValue) node[index & MASK];
+    }
+
+    /**
+     * Creates a vector with an item added to the end (this vector is unchanged).
+     *   @param val the item being added
+     *   @return the longer vector
+     */
+    public PersistentVector append(DataValue val) {
+        return this.appendAll(List.of(val));
+    }
+
+    /**
+     * Creates a vector with items added to the end (this vector is unchanged).
+     * The tail is filled a chunk at a time, so this costs O(m) copying plus
+     * O(log32 n) per 32 items added.
+     *   @param items the items being added, in order
+     *   @return the longer vector
+     */
+    public PersistentVector appendAll(List<DataValue> items) {
+        PersistentVector vec = this;
+        int added = 0;
+        while (added < items.size()) {
+            if (vec.tail.length == WIDTH) {
+                vec = vec.pushTail();
+            }
+            int count = Math.min(WIDTH - vec.tail.length, items.size() - added);
+            Object[] newTail = Arrays.copyOf(vec.tail, vec.tail.length + count);
+            for (int i = 0; i < count; i++) {
+                newTail[vec.tail.length + i] = items.get(added + i);
+            }
+            vec = new PersistentVector(vec.size + count, vec.shift, vec.root, newTail);
+            added += count;
+        }
+        return vec;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Determines the index of the first item in the tail.
+     */
+    private int tailOffset() {
+        if (this.size < WIDTH) {
+            return 0;
+        }
+        return ((this.size - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * Moves the (full) tail into the trie, leaving an empty tail.
+     */
+    private PersistentVector pushTail() {
+        if ((this.size >>> BITS) > (1 << this.shift)) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = this.root;
+            newRoot[1] = PersistentVector.newPath(this.shift, this.tail);
+            return new PersistentVector(this.size, this.shift + BITS, newRoot, NO_ITEMS);
+        }
+        return new PersistentVector(this.size, this.shift, this.pushTail(this.shift, this.root), NO_ITEMS);
+    }
+
+    private Object[] pushTail(int level, Object[] parent) {
+        int sub = ((this.size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[sub] = this.tail;
+        }
+        else if (parent[sub] != null) {
+            copy[sub] = this.pushTail(level - BITS, (Object[]) parent[sub]);
+        }
+        else {
+            copy[sub] = PersistentVector.newPath(level - BITS, this.tail);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = PersistentVector.newPath(level - BITS, leaf);
+        return node;
+    }
+}
@@ -0,0 +1,93 @@
+import java.math.BigInteger;
+
+/**
+ * Derived class that represents exponentiation, (x ^ y), in the SILLY language.
+ * Powers are computed exactly by repeated squaring.  A negative exponent gives
+ * the integer part of the fraction: 1 for base 1, 1 or -1 for base -1, an
+ * error for base 0, and 0 for any other base.
+ */
+public class Power extends BinaryExpression {
+
+    /**
+     * Constructs the expression.
+     *   @param lhs the left operand
+     *   @param rhs the right operand
+     */
+    public Power(Expression lhs, Expression rhs) {
+        super(lhs, Token.CARET, rhs);
+    }
+
+    /**
+     * Evaluates the current expression.
+     *   @param context the state of the running program
+     *   @return the resulting value
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        return Power.apply(this.lhs.evaluate(context), this.rhs.evaluate(context));
+    }
+
+    /**
+     * Evaluates the power of two integers.
+     *   @param l the left operand value
+     *   @param r the right operand value
+     *   @return the resulting integer value
+     */
+    public static DataValue apply(DataValue l, DataValue r) throws Exception {
+        if (l.getType() != DataValue.Type.INTEGER || r.getType() != DataValue.Type.INTEGER) {
+            throw BinaryExpression.mismatch();
+        }
+        if (l instanceof IntegerValue && r instanceof IntegerValue) {
+            long base = l.asLong(), exp = r.asLong();
+            if (base == 0 && exp < 0) {
+                throw RuntimeError.DIVIDE_BY_ZERO;
+            }
+            int bits = 64 - Long.numberOfLeadingZeros(Math.abs(base));     // |base| < 2^bits
+            if (exp < 0 || bits <= 1 || (exp <= 63 && bits * exp <= 63)) {  // sure to fit in a long
+                return IntegerValue.valueOf(Power.exact(base, exp));
+            }
+        }
+        BigInteger base = BigIntegerValue.toBigInteger(l), exp = BigIntegerValue.toBigInteger(r);
+        if (base.signum() == 0 && exp.signum() < 0) {
+            throw RuntimeError.DIVIDE_BY_ZERO;
+        }
+        else if (base.abs().compareTo(BigInteger.ONE) <= 0) {
+            // only the sign and parity of the exponent matter
+            return IntegerValue.valueOf(Power.exact(base.longValue(), exp.signum() * (exp.testBit(0) ? 1 : 2)));
+        }
+        else if (exp.signum() < 0) {
+            return IntegerValue.valueOf(0);
+        }
+        else if (exp.bitLength() > 31) {
+            throw RuntimeError.OVERFLOW;
+        }
+        return BigIntegerValue.valueOf(base.pow(exp.intValue()));
+    }
+
+    /**
+     * Computes the power of two longs by repeated squaring.
+     *   @param base the base
+     *   @param exp the exponent
+     *   @return base to the power exp
+     *   @throws ArithmeticException if the result does not fit in a long (or base is 0 and exp is negative),
+     *           which makes a CompiledLoop roll back (apply reports these cases as RuntimeErrors)
+     */
+    public static long exact(long base, long exp) {
+        if (exp < 0) {
+            if (base == 0) {
+                throw new ArithmeticException("/ by zero");
+            }
+            return base == 1 ? 1 : base == -1 ? 1 - 2 * (exp & 1) : 0;
+        }
+        long result = 1;
+        while (exp != 0) {
+            if ((exp & 1) != 0) {
+                result = Math.multiplyExact(result, base);
+            }
+            exp >>= 1;
+            if (exp != 0) {
+                base = Math.multiplyExact(base, base);
+            }
+        }
+        return result;
+    }
+}
@@ -11,22 +11,47 @@ public class Print extends Statement {
      *   @param input the stream to be read from
      */
     public Print(TokenStream input) throws Exception {
-    	if (!input.next().toString().equals("print")) {
+    	if (input.next() != Token.PRINT) {
             throw new Exception("SYNTAX ERROR: Malformed print statement");
         } 
     	
-    	this.expr = new Expression(input);
+    	this.expr = Expression.getExpression(input);
+    }
+
+    /**
+     * Constructs a print statement from its expression.
+     *   @param expr the expression whose value is printed
+     */
+    public Print(Expression expr) {
+        this.expr = expr;
+    }
+
+    /**
+     * Binds the variables in the expression to frame slots.
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+    	this.expr.resolve(scopes);
     }
 
     /**
      * Executes the current print statement.
+     *   @param context the state of the running program
      */
-    public Statement.Status execute() throws Exception {
-		System.out.println(this.expr.evaluate().toString());
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+		context.getOutput().println(this.expr.evaluate(context).toString());
 		
 		return Statement.Status.OK;
     }
     
+    /**
+     * Accesses the expression being printed.
+     *   @return the expression
+     */
+    public Expression getExpression() {
+        return this.expr;
+    }
+
     /**
      * Converts the current print statement into a String.
      *   @return the String representation of this statement
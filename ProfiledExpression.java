@@ -0,0 +1,49 @@
+/**
+ * Derived class that represents an expression being profiled (see Profiler).
+ * It behaves exactly like the expression it wraps, but records each evaluation.
+ */
+public class ProfiledExpression extends Expression {
+    private Expression expr;
+    private Profiler.Entry entry;
+
+    /**
+     * Constructs a profiled expression.
+     *   @param expr the expression being profiled
+     *   @param entry the profiler entry its evaluations are recorded in
+     */
+    public ProfiledExpression(Expression expr, Profiler.Entry entry) {
+        this.expr = expr;
+        this.entry = entry;
+    }
+
+    /**
+     * Binds the variables in the expression to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.expr.resolve(scopes);
+    }
+
+    /**
+     * Evaluates the expression, timing it.
+     *   @param context the state of the running program
+     *   @return the value of the expression
+     */
+    public DataValue evaluate(ExecutionContext context) throws Exception {
+        long start = Profiler.ACTIVE.enter();
+        try {
+            return this.expr.evaluate(context);
+        }
+        finally {
+            Profiler.ACTIVE.exit(this.entry, start);
+        }
+    }
+
+    /**
+     * Converts the expression into a String.
+     *   @return the String representation of the expression
+     */
+    public String toString() {
+        return this.expr.toString();
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Derived class that represents a statement being profiled (see Profiler).
+ * It behaves exactly like the statement it wraps, but records each execution.
+ */
+public class ProfiledStatement extends Statement {
+    private Statement stmt;
+    private Profiler.Entry entry;
+
+    /**
+     * Constructs a profiled statement.
+     *   @param stmt the statement being profiled
+     *   @param entry the profiler entry its executions are recorded in
+     */
+    public ProfiledStatement(Statement stmt, Profiler.Entry entry) {
+        this.stmt = stmt;
+        this.entry = entry;
+    }
+
+    /**
+     * Binds the variables in the statement to frame slots.
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.stmt.resolve(scopes);
+    }
+
+    /**
+     * Determines whether the wrapped statement declares a variable.
+     *   @return true if it is a Var, else false
+     */
+    public boolean declares() {
+        return this.stmt.declares();
+    }
+
+    /**
+     * Accesses the name of the subroutine the wrapped statement defines.
+     *   @return the name (null if it is not a subroutine definition)
+     */
+    public Token definedSub() {
+        return this.stmt.definedSub();
+    }
+
+    /**
+     * Executes the statement, timing it.
+     *   @param context the state of the running program
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        long start = Profiler.ACTIVE.enter();
+        try {
+            return this.stmt.execute(context);
+        }
+        finally {
+            Profiler.ACTIVE.exit(this.entry, start);
+        }
+    }
+
+    /**
+     * Converts the statement into a String.
+     *   @return the String representation of the statement
+     */
+    public String toString() {
+        return this.stmt.toString();
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Class that profiles the execution of a program (Interpreter -profile).
+ * While a profiler is ACTIVE, the parser wraps every statement and expression
+ * it builds in a ProfiledStatement or ProfiledExpression, which times each
+ * execute/evaluate call; when no profiler is active nothing is wrapped, so
+ * the interpreter runs exactly as usual.  Self time is a node's time minus
+ * the time of the profiled nodes it calls.
+ */
+public class Profiler {
+    public static Profiler ACTIVE = null;     // set by the Interpreter to turn profiling on
+
+    private static final int REPORT_SIZE = 20;
+
+    /**
+     * Class that holds the counts and times of one node.
+     */
+    public static class Entry {
+        private Object node;
+        private String kind;
+        private long count, total, self;
+
+        private Entry(Object node, String kind) {
+            this.node = node;
+            this.kind = kind;
+        }
+    }
+
+    private ArrayList<Entry> entries;
+    private long[] childTime;     // time spent in the callees of each call in progress
+    private int depth;
+
+    /**
+     * Constructs a profiler with nothing recorded.
+     */
+    public Profiler() {
+        this.entries = new ArrayList<Entry>();
+        this.childTime = new long[64];
+    }
+
+    /**
+     * Wraps a statement so its executions are recorded.
+     *   @param stmt the statement
+     *   @return the profiled statement
+     */
+    public Statement wrap(Statement stmt) {
+        return new ProfiledStatement(stmt, this.newEntry(stmt, "stmt"));
+    }
+
+    /**
+     * Wraps an expression so its evaluations are recorded.
+     *   @param expr the expression
+     *   @return the profiled expression
+     */
+    public Expression wrap(Expression expr) {
+        return new ProfiledExpression(expr, this.newEntry(expr, "expr"));
+    }
+
+    /**
+     * Starts timing a call.
+     *   @return the start time (to pass to exit)
+     */
+    public long enter() {
+        if (this.depth == this.childTime.length) {
+            this.childTime = Arrays.copyOf(this.childTime, 2 * this.depth);
+        }
+        this.childTime[this.depth++] = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes timing a call (whether it returned or threw).
+     *   @param entry the entry of the node called
+     *   @param start the start time returned by enter
+     */
+    public void exit(Profiler.Entry entry, long start) {
+        long elapsed = System.nanoTime() - start;
+        long children = this.childTime[--this.depth];
+        entry.count++;
+        entry.total += elapsed;
+        entry.self += elapsed - children;
+        if (this.depth > 0) {
+            this.childTime[this.depth - 1] += elapsed;
+        }
+    }
+
+    /**
+     * Prints the nodes with the most self time, in decreasing order.
+     *   @param out the stream the report is printed to
+     */
+    public void report(PrintStream out) {
+        ArrayList<Entry> ranked = new ArrayList<Entry>(this.entries);
+        ranked.removeIf(e -> e.count == 0);
+        ranked.sort(Comparator.comparingLong((Entry e) -> e.self).reversed());
+
+        long all = 0;
+        for (Entry e : ranked) {
+            all += e.self;
+        }
+        out.printf("%-5s %12s %12s %12s %6s  %s%n", "kind", "calls", "total ms", "self ms", "self%", "source");
+        for (Entry e : ranked.subList(0, Math.min(Profiler.REPORT_SIZE, ranked.size()))) {
+            out.printf("%-5s %12d %12.3f %12.3f %5.1f%%  %s%n", e.kind, e.count, e.total / 1e6, e.self / 1e6,
+                       all == 0 ? 0.0 : 100.0 * e.self / all, Profiler.source(e.node));
+        }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private Entry newEntry(Object node, String kind) {
+        Entry entry = new Entry(node, kind);
+        this.entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Shortens a node's source text to its first line (at most 60 characters).
+     */
+    private static String source(Object node) {
+        String text = node.toString();
+        int end = text.indexOf('\n');
+        if (end >= 0) {
+            text = text.substring(0, end) + " ...";
+        }
+        return text.length() > 60 ? text.substring(0, 57) + "..." : text;
+    }
+}
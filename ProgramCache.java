@@ -0,0 +1,418 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Class that keeps parsed programs in an on-disk cache, so running the same
+ * program file again skips lexing and parsing.  Entries are named by the
+ * SHA-256 hash of the program text and hold a compact preorder encoding of
+ * the statement trees: a pool of the distinct token texts, then a tag byte
+ * per node with tokens as (varint) pool indexes.  Entries are memory-mapped
+ * when loaded, and each pooled token is a single view into the mapping that
+ * is shared by every node using it.  A missing, unreadable or outdated entry
+ * is simply replaced by parsing.  The cache is off unless a directory is
+ * given with -Dsilly.cache=DIR.
+ */
+public class ProgramCache {
+    // set -Dsilly.cache=DIR to turn on the cache (empty means off)
+    public static final String DIRECTORY = System.getProperty("silly.cache", "");
+
+    private static final int MAGIC = 0x53494C43;     // "SILC"
+    private static final int VERSION = 4;            // bump when the encoding or AST changes
+
+    private static final byte ASSIGNMENT = 1, VAR = 2, PRINT = 3, WHILE = 4, REPEAT = 5, SUB = 6, CALL = 7,
+                              BREAK = 8, EXIT = 9;
+    private static final byte LITERAL = 16, VARIABLE = 17, LIST = 18, UNARY = 19, BINARY = 20, CALL_EXPRESSION = 21;
+
+    private LinkedHashMap<String, Integer> pool;      // token text -> index (when encoding)
+    private ByteArrayOutputStream nodeBytes;
+    private DataOutputStream nodes;
+    private ByteBuffer in;                            // the entry (when decoding)
+    private Token[] tokens;
+
+    /**
+     * Constructs an encoder.
+     */
+    private ProgramCache() {
+        this.pool = new LinkedHashMap<String, Integer>();
+        this.nodeBytes = new ByteArrayOutputStream();
+        this.nodes = new DataOutputStream(this.nodeBytes);
+    }
+
+    /**
+     * Constructs a decoder.
+     *   @param in the entry, positioned at the first node
+     *   @param tokens the token pool of the entry
+     */
+    private ProgramCache(ByteBuffer in, Token[] tokens) {
+        this.in = in;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Reads in a program file, from the cache if it holds an entry for the
+     * file's current contents (else by parsing it, and storing the result).
+     *   @param filename the program file
+     *   @return the statements of the program, in order
+     *   @throws Exception listing every syntax error, if the program does not parse
+     */
+    public static List<Statement> load(String filename) throws Exception {
+        ByteBuffer source = ProgramCache.map(Paths.get(filename));
+        if (ProgramCache.DIRECTORY.isEmpty()) {
+            return new Parser(new TokenStream(source)).parseProgram();
+        }
+        return ProgramCache.load(source, ProgramCache.hash(source));
+    }
+
+    /**
+     * Reads in a program whose text has already been hashed, from the cache
+     * if it holds an entry for that hash (else by parsing it, and storing the
+     * result).
+     *   @param source the program text
+     *   @param hash the hash of the text (from hash)
+     *   @return the statements of the program, in order
+     *   @throws Exception listing every syntax error, if the program does not parse
+     */
+    public static List<Statement> load(ByteBuffer source, String hash) throws Exception {
+        if (ProgramCache.DIRECTORY.isEmpty()) {
+            return new Parser(new TokenStream(source)).parseProgram();
+        }
+
+        Path entry = Paths.get(ProgramCache.DIRECTORY, hash + ".silc");
+        if (Files.isRegularFile(entry)) {
+            try {
+                return ProgramCache.decode(ProgramCache.map(entry));
+            }
+            catch (IOException | RuntimeException e) {
+                // unreadable, truncated or from another version: parse again
+            }
+        }
+
+        List<Statement> program = new Parser(new TokenStream(source)).parseProgram();
+        ProgramCache.store(entry, program);
+        return program;
+    }
+
+    /**
+     * Encodes (unresolved) statements in the cache format.
+     *   @param program the statements, in order
+     *   @return the encoded bytes
+     */
+    public static byte[] encode(List<Statement> program) throws IOException {
+        ProgramCache writer = new ProgramCache();
+        ProgramCache.writeVarint(writer.nodes, program.size());
+        for (Statement stmt : program) {
+            writer.writeStatement(stmt);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(writer.nodeBytes.size() + 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ProgramCache.MAGIC);
+        out.writeInt(ProgramCache.VERSION);
+        ProgramCache.writeVarint(out, writer.pool.size());
+        for (String text : writer.pool.keySet()) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            ProgramCache.writeVarint(out, utf8.length);
+            out.write(utf8);
+        }
+        writer.nodeBytes.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes statements stored in the cache format.
+     *   @param buffer the encoded bytes (read from position to limit)
+     *   @return the statements, in order (an unmodifiable list)
+     */
+    public static List<Statement> decode(ByteBuffer buffer) {
+        if (buffer.getInt() != ProgramCache.MAGIC || buffer.getInt() != ProgramCache.VERSION) {
+            throw new IllegalStateException("Not a cached program of this version");
+        }
+        Token[] tokens = new Token[ProgramCache.readVarint(buffer)];
+        for (int i = 0; i < tokens.length; i++) {
+            int length = ProgramCache.readVarint(buffer);
+            tokens[i] = Token.of(buffer, buffer.position(), length, 0, 0);
+            buffer.position(buffer.position() + length);
+        }
+
+        ProgramCache reader = new ProgramCache(buffer, tokens);
+        int count = ProgramCache.readVarint(buffer);
+        ArrayList<Statement> program = new ArrayList<Statement>(count);
+        for (int i = 0; i < count; i++) {
+            program.add(reader.readStatement());
+        }
+        return Collections.unmodifiableList(program);
+    }
+
+    /**
+     * Computes the hash that names the cache entry for a program text.
+     *   @param source the program text
+     *   @return the SHA-256 hash, in hex
+     */
+    public static String hash(ByteBuffer source) throws Exception {
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        sha.update(source.duplicate());
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void writeStatement(Statement stmt) throws IOException {
+        if (stmt instanceof Var) {
+            this.nodes.writeByte(ProgramCache.VAR);
+            this.writeToken(((Var) stmt).getAssignment().getVariable());
+            this.writeExpression(((Var) stmt).getAssignment().getExpression());
+        }
+        else if (stmt instanceof Assignment) {
+            this.nodes.writeByte(ProgramCache.ASSIGNMENT);
+            this.writeToken(((Assignment) stmt).getVariable());
+            this.writeExpression(((Assignment) stmt).getExpression());
+        }
+        else if (stmt instanceof Print) {
+            this.nodes.writeByte(ProgramCache.PRINT);
+            this.writeExpression(((Print) stmt).getExpression());
+        }
+        else if (stmt instanceof While) {
+            this.nodes.writeByte(ProgramCache.WHILE);
+            this.writeExpression(((While) stmt).getTest());
+            this.writeBody(((While) stmt).getBody());
+        }
+        else if (stmt instanceof Repeat) {
+            this.nodes.writeByte(ProgramCache.REPEAT);
+            this.writeExpression(((Repeat) stmt).getCount());
+            this.writeBody(((Repeat) stmt).getBody());
+        }
+        else if (stmt instanceof Sub) {
+            this.nodes.writeByte(ProgramCache.SUB);
+            this.writeToken(((Sub) stmt).getName());
+            ProgramCache.writeVarint(this.nodes, ((Sub) stmt).getParameters().size());
+            for (Token param : ((Sub) stmt).getParameters()) {
+                this.writeToken(param);
+            }
+            this.writeBody(((Sub) stmt).getBody());
+        }
+        else if (stmt instanceof Call) {
+            this.nodes.writeByte(ProgramCache.CALL);
+            this.writeCall(((Call) stmt).getCall());
+        }
+        else if (stmt instanceof Break) {
+            this.nodes.writeByte(ProgramCache.BREAK);
+        }
+        else if (stmt instanceof Exit) {
+            this.nodes.writeByte(ProgramCache.EXIT);
+        }
+        else {
+            throw new IllegalArgumentException("Cannot cache " + stmt.getClass().getName());
+        }
+    }
+
+    private void writeBody(Body body) throws IOException {
+        ProgramCache.writeVarint(this.nodes, body.getStatements().size());
+        for (Statement stmt : body.getStatements()) {
+            this.writeStatement(stmt);
+        }
+    }
+
+    private void writeExpression(Expression expr) throws IOException {
+        if (expr instanceof Literal) {
+            this.nodes.writeByte(ProgramCache.LITERAL);
+            this.writeToken(((Literal) expr).getToken());
+        }
+        else if (expr instanceof Variable) {
+            this.nodes.writeByte(ProgramCache.VARIABLE);
+            this.writeToken(((Variable) expr).getToken());
+        }
+        else if (expr instanceof ListLiteral) {
+            this.nodes.writeByte(ProgramCache.LIST);
+            ProgramCache.writeVarint(this.nodes, ((ListLiteral) expr).getItems().size());
+            for (Expression item : ((ListLiteral) expr).getItems()) {
+                this.writeExpression(item);
+            }
+        }
+        else if (expr instanceof UnaryExpression) {
+            this.nodes.writeByte(ProgramCache.UNARY);
+            this.writeToken(((UnaryExpression) expr).getOperator());
+            this.writeExpression(((UnaryExpression) expr).getOperand());
+        }
+        else if (expr instanceof BinaryExpression) {
+            this.nodes.writeByte(ProgramCache.BINARY);
+            this.writeToken(((BinaryExpression) expr).getOperator());
+            this.writeExpression(((BinaryExpression) expr).getLhs());
+            this.writeExpression(((BinaryExpression) expr).getRhs());
+        }
+        else if (expr instanceof CallExpression) {
+            this.nodes.writeByte(ProgramCache.CALL_EXPRESSION);
+            this.writeCall((CallExpression) expr);
+        }
+        else {
+            throw new IllegalArgumentException("Cannot cache " + expr.getClass().getName());
+        }
+    }
+
+    private void writeCall(CallExpression call) throws IOException {
+        this.writeToken(call.getName());
+        ProgramCache.writeVarint(this.nodes, call.getArguments().size());
+        for (Expression arg : call.getArguments()) {
+            this.writeExpression(arg);
+        }
+    }
+
+    private void writeToken(Token tok) throws IOException {
+        Integer index = this.pool.get(tok.toString());
+        if (index == null) {
+            index = this.pool.size();
+            this.pool.put(tok.toString(), index);
+        }
+        ProgramCache.writeVarint(this.nodes, index);
+    }
+
+    private Statement readStatement() {
+        byte tag = this.in.get();
+        switch (tag) {
+            case ProgramCache.VAR:
+                return new Var(new Assignment(this.readToken(), this.readExpression()));
+            case ProgramCache.ASSIGNMENT:
+                return new Assignment(this.readToken(), this.readExpression());
+            case ProgramCache.PRINT:
+                return new Print(this.readExpression());
+            case ProgramCache.WHILE:
+                return new While(this.readExpression(), this.readBody());
+            case ProgramCache.REPEAT:
+                return new Repeat(this.readExpression(), this.readBody());
+            case ProgramCache.SUB:
+                Token name = this.readToken();
+                int count = ProgramCache.readVarint(this.in);
+                ArrayList<Token> params = new ArrayList<Token>(count);
+                for (int i = 0; i < count; i++) {
+                    params.add(this.readToken());
+                }
+                return new Sub(name, params, this.readBody());
+            case ProgramCache.CALL:
+                return new Call(this.readCall());
+            case ProgramCache.BREAK:
+                return new Break();
+            case ProgramCache.EXIT:
+                return new Exit();
+            default:
+                throw new IllegalStateException("Unknown statement tag " + tag);
+        }
+    }
+
+    private Body readBody() {
+        int count = ProgramCache.readVarint(this.in);
+        ArrayList<Statement> stmts = new ArrayList<Statement>(count);
+        for (int i = 0; i < count; i++) {
+            stmts.add(this.readStatement());
+        }
+        return new Body(stmts);
+    }
+
+    private Expression readExpression() {
+        byte tag = this.in.get();
+        switch (tag) {
+            case ProgramCache.LITERAL:
+                return new Literal(this.readToken());
+            case ProgramCache.VARIABLE:
+                return new Variable(this.readToken());
+            case ProgramCache.LIST:
+                int count = ProgramCache.readVarint(this.in);
+                ArrayList<Expression> items = new ArrayList<Expression>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(this.readExpression());
+                }
+                return new ListLiteral(items);
+            case ProgramCache.UNARY:
+                Token unaryOp = this.readToken();
+                return Expression.unary(unaryOp, this.readExpression());
+            case ProgramCache.BINARY:
+                Token binaryOp = this.readToken();
+                Expression lhs = this.readExpression();
+                return Expression.binary(lhs, binaryOp, this.readExpression());
+            case ProgramCache.CALL_EXPRESSION:
+                return this.readCall();
+            default:
+                throw new IllegalStateException("Unknown expression tag " + tag);
+        }
+    }
+
+    private CallExpression readCall() {
+        Token name = this.readToken();
+        int count = ProgramCache.readVarint(this.in);
+        ArrayList<Expression> args = new ArrayList<Expression>(count);
+        for (int i = 0; i < count; i++) {
+            args.add(this.readExpression());
+        }
+        return new CallExpression(name, args);
+    }
+
+    private Token readToken() {
+        return this.tokens[ProgramCache.readVarint(this.in)];
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a cache entry (to a temporary file that is then renamed, so a
+     * concurrent run never maps a partial entry).  The cache is only an
+     * optimization, so failures are ignored.
+     */
+    private static void store(Path entry, List<Statement> program) {
+        Path temp = null;
+        try {
+            byte[] bytes = ProgramCache.encode(program);
+            Files.createDirectories(entry.getParent());
+            temp = Files.createTempFile(entry.getParent(), "entry", ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e) {
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -10,36 +10,109 @@ public class Repeat extends Statement {
 
     private Expression expr;
     private Body body;
+    private Invariant[] invariants;  // hoisted from the loop by the Optimizer
+    private int frameSize;           // of the loop's own scope (which only a loop with invariants has)
+    private int number;           // from the Resolver, to find the loop's LoopCompiler.Profile
 
     public Repeat(TokenStream input) throws Exception {
-        if (!input.next().toString().equals("repeat")) {
+        if (input.next() != Token.REPEAT) {
             throw new Exception("SYNTAX ERROR: Malformed repeat statement");
         }
-        this.expr = new Expression(input);
-        if (!input.next().toString().equals("times")) {
+        this.expr = Expression.getExpression(input);
+        if (input.next() != Token.TIMES) {
             throw new Exception("SYNTAX ERROR: Malformed repeat statement");
         }
         ArrayList<Statement> stmts = new ArrayList<Statement>();
-        while (!input.lookAhead().toString().equals("endrepeat")) {
+        while (input.lookAhead() != Token.ENDREPEAT) {
             stmts.add(Statement.getStatement(input));
         }
         this.body = new Body(stmts);
+        this.invariants = new Invariant[0];
         input.next();
     }
 
-    public Statement.Status execute() throws Exception {
-        DataValue eVal = this.expr.evaluate();
-        if (eVal == null || !(eVal.getValue() instanceof Integer)) {
-            throw new Exception(
-                "RUNTIME ERROR: Expression does not evaluate to an integer value"
-            );
+    /**
+     * Constructs a repeat statement from its parts.
+     *   @param expr the repetition count
+     *   @param body the loop body
+     */
+    public Repeat(Expression expr, Body body) {
+        this(expr, body, new Invariant[0]);
+    }
+
+    /**
+     * Constructs a repeat statement whose loop-invariant expressions have been hoisted.
+     *   @param expr the loop count
+     *   @param body the loop body
+     *   @param invariants the hoisted expressions (whose temporaries the loop declares and clears)
+     */
+    public Repeat(Expression expr, Body body, Invariant[] invariants) {
+        this.expr = expr;
+        this.body = body;
+        this.invariants = invariants;
+    }
+
+    /**
+     * Binds the variables in the count and body to frame slots.  A loop with
+     * hoisted expressions declares their temporaries in a scope of its own,
+     * which the count and body are resolved in (and run in, each time the loop
+     * starts, so the temporaries start out cleared).
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        if (!this.isScoped()) {
+            this.resolveLoop(scopes);
+            return;
+        }
+
+        scopes.beginScope();
+        try {
+            for (Invariant inv : this.invariants) {
+                inv.declare(scopes);
+            }
+            this.resolveLoop(scopes);
         }
-        int count = (Integer) eVal.getValue();
-        for (int i = 0; i < count; i++) {
-            body.execute();
+        finally {
+            this.frameSize = scopes.endScope();
         }
+    }
 
-        return Statement.Status.OK;
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        if (!this.isScoped()) {
+            return this.run(context);
+        }
+
+        context.getMemory().beginScope(this.frameSize);
+        try {
+            return this.run(context);
+        }
+        finally {
+            context.getMemory().endScope();
+        }
+    }
+
+    /**
+     * Accesses the repetition count.
+     *   @return the count expression
+     */
+    public Expression getCount() {
+        return this.expr;
+    }
+
+    /**
+     * Accesses the loop body.
+     *   @return the body
+     */
+    public Body getBody() {
+        return this.body;
+    }
+
+    /**
+     * Determines whether the loop runs in a scope of its own (outside its body's).
+     *   @return true if the loop has hoisted expressions, else false
+     */
+    public boolean isScoped() {
+        return this.invariants.length > 0;
     }
 
     /**
@@ -55,4 +128,46 @@ public class Repeat extends Statement {
             "\nendrepeat"
         );
     }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void resolveLoop(Resolver scopes) throws Exception {
+        this.expr.resolve(scopes);
+        this.number = scopes.beginLoop();
+        try {
+            this.body.resolve(scopes);
+        }
+        finally {
+            scopes.endLoop();
+        }
+    }
+
+    private Statement.Status run(ExecutionContext context) throws Exception {
+        DataValue eVal = this.expr.evaluate(context);
+        if (eVal == null || eVal.getType() != DataValue.Type.INTEGER) {
+            throw RuntimeError.REPEAT_COUNT;
+        }
+        if (!(eVal instanceof IntegerValue)) {
+            throw RuntimeError.OUT_OF_RANGE;      // (a count that does not fit in a long)
+        }
+        long count = eVal.asLong();
+        LoopCompiler.Profile profile = context.getLoop(this.number);
+        CompiledLoop compiled = profile.enter(this, context);
+        if (compiled != null) {
+            count = compiled.run(context, count);      // what it leaves to be interpreted
+        }
+
+        for (long i = 0; i < count; i++) {
+            Statement.Status status = body.execute(context);
+            if (status != Statement.Status.OK) {
+                return status == Statement.Status.EXIT ? status : Statement.Status.OK;
+            }
+            compiled = profile.loop(this, context);
+            if (compiled != null) {
+                count = i + 1 + compiled.run(context, count - i - 1);
+            }
+        }
+
+        return Statement.Status.OK;
+    }
 }
@@ -0,0 +1,142 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Class that binds variables to frame slots before a statement is executed.
+ * Each scope maps the variables declared in it to consecutive slot numbers,
+ * mirroring the frames that MemorySpace pushes at runtime.  Subroutines are
+ * kept in a table of their own (by name), so calls can be bound to them, and
+ * the loops being resolved are counted, so a break can be checked (and
+ * numbered, so each ExecutionContext can profile them separately).
+ */
+public class Resolver {
+    private ArrayList<HashMap<Token, Integer>> scopes;
+    private HashMap<Token, Sub> subs;
+    private int loops;
+    private int numbered;      // loops resolved so far
+
+    /**
+     * Constructs a resolver containing only the global scope.
+     */
+    public Resolver() {
+        this.scopes = new ArrayList<HashMap<Token, Integer>>();
+        this.scopes.add(new HashMap<Token, Integer>());
+        this.subs = new HashMap<Token, Sub>();
+    }
+
+    /**
+     * Adds a new (innermost) scope.
+     */
+    public void beginScope() {
+        this.scopes.add(new HashMap<Token, Integer>());
+    }
+
+    /**
+     * Removes the innermost scope.
+     *   @return the number of slots the scope's frame needs
+     */
+    public int endScope() {
+        return this.scopes.remove(this.scopes.size() - 1).size();
+    }
+
+    /**
+     * Declares a variable in the innermost scope.
+     *   @param variable the variable being declared
+     *   @return the slot assigned to that variable
+     */
+    public int declare(Token variable) throws Exception {
+        HashMap<Token, Integer> local = this.scopes.get(this.scopes.size() - 1);
+        if (local.containsKey(variable)) {
+            throw new Exception("SYNTAX ERROR: Variable '" + variable + "' is already declared.");
+        }
+        int slot = local.size();
+        local.put(variable, slot);
+        return slot;
+    }
+
+    /**
+     * Determines how many scopes out a variable is declared.
+     *   @param variable the variable being searched for
+     *   @return 0 for the innermost scope, 1 for its parent, ...; -1 if undeclared
+     */
+    public int depthOf(Token variable) {
+        for (int i = this.scopes.size() - 1; i >= 0; i--) {
+            if (this.scopes.get(i).containsKey(variable)) {
+                return this.scopes.size() - 1 - i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines the slot of a variable within the scope at the given depth.
+     *   @param variable the variable being searched for
+     *   @param depth the depth returned by depthOf
+     *   @return the slot assigned to that variable
+     */
+    public int slotOf(Token variable, int depth) {
+        return this.scopes.get(this.scopes.size() - 1 - depth).get(variable);
+    }
+
+    /**
+     * Notes that the body of a loop is being resolved.
+     *   @return the number of the loop (0 for the first one resolved, 1 for the next, ...)
+     */
+    public int beginLoop() {
+        this.loops++;
+        return this.numbered++;
+    }
+
+    /**
+     * Notes that the body of the innermost loop has been resolved.
+     */
+    public void endLoop() {
+        this.loops--;
+    }
+
+    /**
+     * Determines whether statements are being resolved inside a loop.
+     *   @return true if a break would end a loop, else false
+     */
+    public boolean inLoop() {
+        return this.loops > 0;
+    }
+
+    /**
+     * Determines whether statements are being resolved at the top level.
+     *   @return true if only the global scope is visible, else false
+     */
+    public boolean isGlobal() {
+        return this.scopes.size() == 1;
+    }
+
+    /**
+     * Defines a subroutine (before its statements are resolved, so it can call itself).
+     *   @param sub the subroutine being defined
+     *   @return the number of the subroutine (0 for the first one defined, 1 for the next, ...)
+     */
+    public int defineSub(Sub sub) throws Exception {
+        if (this.subs.containsKey(sub.getName())) {
+            throw new Exception("SYNTAX ERROR: Subroutine '" + sub.getName() + "' is already defined.");
+        }
+        this.subs.put(sub.getName(), sub);
+        return this.subs.size() - 1;
+    }
+
+    /**
+     * Removes a subroutine whose definition failed to resolve.
+     *   @param sub the subroutine
+     */
+    public void undefineSub(Sub sub) {
+        this.subs.remove(sub.getName(), sub);
+    }
+
+    /**
+     * Finds a subroutine by name.
+     *   @param name the name of the subroutine
+     *   @return the subroutine (null if it is not defined)
+     */
+    public Sub lookupSub(Token name) {
+        return this.subs.get(name);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Class that represents an immutable string as a balanced binary tree of
+ * text pieces.  Concatenation builds a new node (rebalancing with AVL-style
+ * rotations) instead of copying both strings, so a string grown a piece at a
+ * time is not copied on every step; charAt is O(log n), length is O(1), and
+ * the text is only flattened into a String when toString is called.
+ */
+public class Rope {
+    private static final int SHORT = 64;   // pieces up to this long are copied rather than linked
+
+    public static final Rope EMPTY = new Rope("");
+
+    private final Rope left, right;        // both null for a leaf
+    private final int length;
+    private final int depth;               // 0 for a leaf
+    private String flat;                   // the whole text (leaves, and nodes once flattened)
+
+    /**
+     * Constructs a leaf.
+     *   @param text the text stored
+     */
+    private Rope(String text) {
+        this.left = null;
+        this.right = null;
+        this.length = text.length();
+        this.depth = 0;
+        this.flat = text;
+    }
+
+    /**
+     * Constructs a concatenation node.
+     *   @param left the text that comes first
+     *   @param right the text that follows it
+     */
+    private Rope(Rope left, Rope right) {
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+        this.depth = Math.max(left.depth, right.depth) + 1;
+    }
+
+    /**
+     * Creates the rope for a string.
+     *   @param text the string
+     *   @return a (leaf) rope holding that text
+     */
+    public static Rope of(String text) {
+        return text.isEmpty() ? Rope.EMPTY : new Rope(text);
+    }
+
+    /**
+     * Accesses the number of characters in the rope.
+     *   @return the length
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Accesses a character of the rope.
+     *   @param index the index of the character (starting at 0)
+     *   @return the character at that index
+     */
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        Rope node = this;
+        while (node.flat == null) {
+            if (index < node.left.length) {
+                node = node.left;
+            }
+            else {
+                index -= node.left.length;
+                node = node.right;
+            }
+        }
+        return node.flat.charAt(index);
+    }
+
+    /**
+     * Creates the concatenation of this rope and another (neither is changed).
+     *   @param other the rope whose text follows this one's
+     *   @return the concatenated rope
+     */
+    public Rope concat(Rope other) {
+        if (other.length == 0) {
+            return this;
+        }
+        else if (this.length == 0) {
+            return other;
+        }
+        else if (this.length + other.length <= Rope.SHORT) {
+            return new Rope(this.toString() + other.toString());
+        }
+        else if (this.depth > 0 && this.right.depth == 0 && other.depth == 0 &&
+                 this.right.length + other.length <= Rope.SHORT) {
+            // the common case of appending a short piece: extend the last leaf
+            return new Rope(this.left, new Rope(this.right.flat + other.flat));
+        }
+        return Rope.join(this, other);
+    }
+
+    /**
+     * Converts the rope to a String (flattening it once; later calls are free).
+     *   @return the text of the rope
+     */
+    public String toString() {
+        if (this.flat == null) {
+            StringBuilder text = new StringBuilder(this.length);
+            this.appendTo(text);
+            this.flat = text.toString();
+        }
+        return this.flat;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void appendTo(StringBuilder text) {
+        if (this.flat != null) {
+            text.append(this.flat);
+        }
+        else {
+            this.left.appendTo(text);
+            this.right.appendTo(text);
+        }
+    }
+
+    /**
+     * Joins two ropes, keeping the depths of every node's children within one
+     * of each other (so the depth stays O(log n)).
+     */
+    private static Rope join(Rope l, Rope r) {
+        if (l.depth > r.depth + 1) {
+            return Rope.joinRight(l, r);
+        }
+        else if (r.depth > l.depth + 1) {
+            return Rope.joinLeft(l, r);
+        }
+        return new Rope(l, r);
+    }
+
+    private static Rope joinRight(Rope l, Rope r) {
+        Rope joined = l.right.depth <= r.depth + 1 ? new Rope(l.right, r) : Rope.joinRight(l.right, r);
+        if (joined.depth <= l.left.depth + 1) {
+            return new Rope(l.left, joined);
+        }
+        if (joined.left.depth > joined.right.depth) {
+            joined = Rope.rotateRight(joined);
+        }
+        return Rope.rotateLeft(new Rope(l.left, joined));
+    }
+
+    private static Rope joinLeft(Rope l, Rope r) {
+        Rope joined = r.left.depth <= l.depth + 1 ? new Rope(l, r.left) : Rope.joinLeft(l, r.left);
+        if (joined.depth <= r.right.depth + 1) {
+            return new Rope(joined, r.right);
+        }
+        if (joined.right.depth > joined.left.depth) {
+            joined = Rope.rotateLeft(joined);
+        }
+        return Rope.rotateRight(new Rope(joined, r.right));
+    }
+
+    private static Rope rotateLeft(Rope node) {
+        return new Rope(new Rope(node.left, node.right.left), node.right.right);
+    }
+
+    private static Rope rotateRight(Rope node) {
+        return new Rope(node.left.left, new Rope(node.left.right, node.right));
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Class that represents an error found while a SILLY program runs (e.g., a
+ * type mismatch).  A runtime error has no stack trace, since where it was
+ * thrown in the interpreter means nothing to the program, and the errors
+ * whose message never changes are preallocated, so a script that runs into
+ * errors again and again does not pay to create them.  The other messages
+ * are only put together when the error is reported.
+ */
+public class RuntimeError extends Exception {
+    public static final RuntimeError BINARY_MISMATCH =
+        new RuntimeError("RUNTIME ERROR: Type mismatch in binary expression");
+    public static final RuntimeError UNARY_MISMATCH =
+        new RuntimeError("RUNTIME ERROR: Type mismatch in unary expression");
+    public static final RuntimeError INDEX_MISMATCH =
+        new RuntimeError("RUNTIME ERROR: Type mismatch, only a string/list and integer can be used with @ operator");
+    public static final RuntimeError NOT_BOOLEAN =
+        new RuntimeError("ILLEGAL TYPE: Must have boolean type with & and |");
+    public static final RuntimeError WHILE_TEST =
+        new RuntimeError("RUNTIME ERROR: while statement requires Boolean test.");
+    public static final RuntimeError REPEAT_COUNT =
+        new RuntimeError("RUNTIME ERROR: Expression does not evaluate to an integer value");
+    public static final RuntimeError DIVIDE_BY_ZERO =
+        new RuntimeError("RUNTIME ERROR: Division by zero");
+    public static final RuntimeError OVERFLOW =
+        new RuntimeError("RUNTIME ERROR: Integer too large");
+    public static final RuntimeError OUT_OF_RANGE =
+        new RuntimeError("RUNTIME ERROR: integer out of range");
+    public static final RuntimeError INDEX_BOUNDS =
+        new RuntimeError("RUNTIME ERROR: index out of bounds");
+
+    private static final long serialVersionUID = 1L;
+
+    private String before, after;    // the message, around its detail
+    private Object detail;
+
+    /**
+     * Constructs an error with a fixed message.
+     *   @param message the message
+     */
+    public RuntimeError(String message) {
+        this(message, "", "");
+    }
+
+    /**
+     * Constructs an error whose message (before + detail + after) is only
+     * put together if it is reported.
+     *   @param before the start of the message
+     *   @param detail the part of the message that varies (e.g., a name)
+     *   @param after the end of the message
+     */
+    public RuntimeError(String before, Object detail, String after) {
+        super(null, null, false, false);
+        this.before = before;
+        this.detail = detail;
+        this.after = after;
+    }
+
+    /**
+     * Accesses the message of the error.
+     *   @return the message
+     */
+    public String getMessage() {
+        return this.before + this.detail + this.after;
+    }
+}
@@ -1,55 +1,66 @@
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
- * Class that represents a scope record in the program execution.
+ * Class that represents a scope record (frame) in the program execution.
+ * Variables are stored in slots assigned by the Resolver.
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class ScopeRecord {
-    private HashMap<Token, DataValue> map;
-    private ScopeRecord parentScope;
-    
+    private DataValue[] slots;
+    private int size;
+
     /**
      * Constructs an empty scope record.
-     * @param parent a reference to the parent scope record (null if no parent)
+     * @param size the number of slots needed by the scope
      */
-    public ScopeRecord(ScopeRecord parent) {
-    	this.map = new HashMap<Token, DataValue>();
-    	this.parentScope = parent;
+    public ScopeRecord(int size) {
+    	this.slots = new DataValue[size];
+    	this.size = size;
     }
-    
+
     /**
-     * Determines if a variable is declared in this scope record.
-     * @param variable the variable to check
-     * @return true if variable is declared (i.e., a key in map); else, false
+     * Prepares this (cleared) scope record to be used for another scope.
+     * @param size the number of slots needed by the scope
      */
-    public boolean declaredInScope(Token variable) {
-    	return this.map.containsKey(variable);
+    public void reuse(int size) {
+        if (size > this.slots.length) {
+            this.slots = new DataValue[size];
+        }
+        this.size = size;
     }
-    
+
     /**
-     * Determines the value associated with a variable in this scope record.
-     *   @param variable the variable to look up
-     *   @return the value associated with that variable (null if not found)
-     */      
-    public DataValue lookupInScope(Token variable) {
-        return this.map.get(variable);
+     * Empties the slots of this scope record (so it holds no values once its
+     * scope has ended).
+     */
+    public void clear() {
+        Arrays.fill(this.slots, 0, this.size, null);
     }
-    
+
     /**
-     * Stores a variable/value in this scope record.
-     *   @param variable the variable name
-     *   @param val the value to be stored under that name
+     * Determines the value stored in a slot of this scope record.
+     *   @param slot the slot to look up
+     *   @return the value stored in that slot (null if not yet assigned)
      */
-    public void storeInScope(Token variable, DataValue val)  {
-        this.map.put(variable, val);
+    public DataValue lookupInScope(int slot) {
+        if (slot >= this.slots.length) {
+            return null;
+        }
+        return this.slots[slot];
     }
-    
+
     /**
-     * Accesses the parent scope record.
-     * @return the parent scope record (or null if no parent)
+     * Stores a value in a slot of this scope record (growing it if needed,
+     * which only happens for the global scope).
+     *   @param slot the slot being stored into
+     *   @param val the value to be stored in that slot
      */
-    public ScopeRecord getParentScope() {
-    	return this.parentScope;
+    public void storeInScope(int slot, DataValue val)  {
+        if (slot >= this.slots.length) {
+            this.slots = Arrays.copyOf(this.slots, Math.max(slot + 1, 2 * this.slots.length));
+            this.size = this.slots.length;
+        }
+        this.slots[slot] = val;
     }
 }
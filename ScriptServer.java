@@ -0,0 +1,213 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that runs SILLY program files as jobs for clients of a local socket
+ * (Interpreter -server PORT), so scripts do not each pay for starting a JVM.
+ * A client connects, sends a program file name on one line, and reads the
+ * program's output (without the >>> echo) until the server closes the
+ * connection; sending "stats" instead returns the job statistics.
+ * Each distinct program text is parsed, optimized and resolved once, and its
+ * statement trees are shared by every job that runs it, each in its own
+ * ExecutionContext.  Jobs run on a fixed pool of worker threads with a
+ * bounded queue; a client that arrives when the queue is full is told the
+ * server is busy.
+ *   e.g., echo loop.sil | nc localhost 7777
+ */
+public class ScriptServer {
+    // set -Dsilly.workers and -Dsilly.queue to size the pool and its queue
+    public static final int WORKERS = Integer.getInteger("silly.workers", Runtime.getRuntime().availableProcessors());
+    public static final int QUEUE = Integer.getInteger("silly.queue", 256);
+
+    /**
+     * Class that holds a parsed, optimized and resolved program (or why it could not be
+     * read).  Its statements are only executed after construction, never
+     * resolved again, and keep no state of their own while they run (values,
+     * loop profiles and compiled loops, and memoized results all live in each
+     * job's ExecutionContext), so any number of jobs can run them at once.
+     */
+    private static class SharedProgram {
+        private List<Statement> stmts;
+        private Exception[] errors;        // the resolve error of each statement (or null)
+        private Exception failure;         // the syntax errors of the program (or null)
+
+        private SharedProgram(ByteBuffer source, String hash) {
+            try {
+                this.stmts = new ArrayList<Statement>();
+                for (Statement stmt : ProgramCache.load(source, hash)) {
+                    this.stmts.add(Optimizer.optimize(stmt));
+                }
+            }
+            catch (Exception e) {
+                this.failure = e;
+                return;
+            }
+            Resolver scopes = new Resolver();
+            this.errors = new Exception[this.stmts.size()];
+            for (int i = 0; i < this.errors.length; i++) {
+                try {
+                    this.stmts.get(i).resolve(scopes);
+                }
+                catch (Exception e) {
+                    this.errors[i] = e;
+                }
+            }
+        }
+    }
+
+    private int port;
+    private ThreadPoolExecutor workers;
+    private ConcurrentHashMap<String, SharedProgram> programs;    // source hash -> program
+    private AtomicLong jobIds;
+    private long started;
+    private long completed, failed, totalNanos, maxNanos;          // guarded by this
+
+    /**
+     * Constructs a server (that is not yet listening).
+     *   @param port the local port clients connect to
+     */
+    public ScriptServer(int port) {
+        this.port = port;
+        this.workers = new ThreadPoolExecutor(ScriptServer.WORKERS, ScriptServer.WORKERS, 0, TimeUnit.SECONDS,
+                                              new ArrayBlockingQueue<Runnable>(ScriptServer.QUEUE));
+        this.programs = new ConcurrentHashMap<String, SharedProgram>();
+        this.jobIds = new AtomicLong();
+    }
+
+    /**
+     * Accepts jobs until the process is stopped, reporting each job's latency
+     * (to standard error) as it finishes.
+     */
+    public void serve() throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.port));
+        System.err.println("SILLY server on port " + this.port + " (" + ScriptServer.WORKERS + " workers)");
+        this.started = System.nanoTime();
+        while (true) {
+            SocketChannel client = server.accept();
+            long accepted = System.nanoTime();
+            try {
+                this.workers.execute(() -> this.handle(client, accepted));
+            }
+            catch (RejectedExecutionException e) {
+                OutputSink out = new OutputSink(client, Charset.defaultCharset(), OutputSink.Flush.LINE);
+                try {
+                    out.println("SERVER BUSY: job queue is full");
+                }
+                finally {
+                    client.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Summarizes the jobs run so far.
+     *   @return the job count, mean and maximum latency, and throughput
+     */
+    public synchronized String statistics() {
+        double seconds = (System.nanoTime() - this.started) / 1e9;
+        return String.format("jobs=%d failed=%d mean=%.3f ms max=%.3f ms throughput=%.1f jobs/s",
+                             this.completed, this.failed,
+                             this.completed == 0 ? 0.0 : this.totalNanos / 1e6 / this.completed,
+                             this.maxNanos / 1e6, this.completed / seconds);
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void handle(SocketChannel client, long accepted) {
+        long start = System.nanoTime();
+        String request = null;
+        boolean ok = false;
+        try (client) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client)));
+            request = in.readLine();
+            OutputSink out = new OutputSink(client, Charset.defaultCharset(), OutputSink.Flush.FULL);
+            if (request == null) {
+                return;
+            }
+            else if (request.strip().equals("stats")) {
+                out.println(this.statistics());
+                out.flush();
+                return;
+            }
+            ok = this.run(request.strip(), out);
+            out.flush();
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println("job " + request + ": " + e);
+        }
+        if (request != null) {
+            this.record(request.strip(), accepted, start, System.nanoTime(), ok);
+        }
+    }
+
+    /**
+     * Runs a program file in a new context, printing its output (and its
+     * errors, as the Interpreter does) to out.
+     *   @return true if the program could be read, else false
+     */
+    private boolean run(String filename, OutputSink out) {
+        SharedProgram program;
+        try {
+            ByteBuffer source = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filename)));
+            program = this.programs.computeIfAbsent(ProgramCache.hash(source), hash -> new SharedProgram(source, hash));
+        }
+        catch (Exception e) {
+            out.println(e.toString());
+            return false;
+        }
+        if (program.failure != null) {
+            out.println(program.failure.getMessage());
+            return false;
+        }
+
+        ExecutionContext context = new ExecutionContext(out);
+        for (int i = 0; i < program.errors.length; i++) {
+            if (program.errors[i] != null) {
+                out.println(Interpreter.report(program.errors[i]));
+                continue;
+            }
+            try {
+                if (program.stmts.get(i).execute(context) == Statement.Status.EXIT) {
+                    break;
+                }
+            }
+            catch (Exception e) {
+                out.println(Interpreter.report(e));
+            }
+        }
+        return true;
+    }
+
+    private void record(String filename, long accepted, long start, long end, boolean ok) {
+        synchronized (this) {
+            this.completed++;
+            if (!ok) {
+                this.failed++;
+            }
+            this.totalNanos += end - accepted;
+            this.maxNanos = Math.max(this.maxNanos, end - accepted);
+        }
+        System.err.printf("job %d %s: waited %.3f ms, ran %.3f ms%n", this.jobIds.incrementAndGet(),
+                          filename, (start - accepted) / 1e6, (end - start) / 1e6);
+    }
+}
@@ -6,9 +6,26 @@
 public abstract class Statement {
     public static enum Status { OK, BREAK, EXIT }
     
-    public abstract Statement.Status execute() throws Exception;
+    public abstract void resolve(Resolver scopes) throws Exception;
+    public abstract Statement.Status execute(ExecutionContext context) throws Exception;
     public abstract String toString();
 
+    /**
+     * Determines whether the statement declares a variable (so a body
+     * containing it needs a scope of its own).
+     *   @return false (a Var declares one)
+     */
+    public boolean declares() {
+        return false;
+    }
+
+    /**
+     * Accesses the name of the subroutine the statement defines.
+     *   @return the name (null if the statement is not a subroutine definition)
+     */
+    public Token definedSub() {
+        return null;
+    }
 
     /**
      * Static method that reads in an arbitrary Statement.
@@ -16,19 +33,7 @@ public abstract class Statement {
      *   @return the next Statement in the program
      */
     public static Statement getStatement(TokenStream input) throws Exception {
-        Token first = input.lookAhead(); 
-
-        if (first.getType() == Token.Type.STATEMENT) {
-        	String className = Statement.capitalize(first.toString());
-        	return (Statement)(Class.forName(className).getConstructor(TokenStream.class).newInstance(input));
-        	
-        }
-        else if (first.getType() == Token.Type.IDENTIFIER) {
-            return new Assignment(input);
-        }
-        else {
-            throw new Exception("SYNTAX ERROR: Unknown statement type (" + first + ")");
-        }
+        return Parser.statement(input);
     }
     
     /**
@@ -39,10 +44,4 @@ public abstract class Statement {
     public static String indent(String str) {
     	return str.replace("\n", "\n  ");
     }
-    
-    /////////////////////////////////////////////////////////////////////////////////////////
-    
-    private static String capitalize(String str) {
-    	return str.substring(0,1).toUpperCase() + str.substring(1,str.length());
-    }
 }
@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+/**
+ * Class that interns strings for the heap, assigning each distinct string an
+ * address.  Addresses are handed out in order (0, 1, 2, ...) and found again
+ * through an open-addressing hash index, so storing is O(1) on average.
+ */
+public class StringTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] strings; // address -> string
+    private int[] hashes;     // address -> hash of that string
+    private int[] index;      // hash bucket -> address + 1 (0 if empty)
+    private int size;
+    private long lookups;
+    private long collisions;
+    private int longestProbe;
+
+    /**
+     * Constructs an empty string table.
+     */
+    public StringTable() {
+        this.strings = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.index = new int[2 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Stores a string in the table (if not already stored).
+     *   @param str the string being added
+     *   @return its address in the table
+     */
+    public int intern(String str) {
+        if (this.size == this.strings.length) {
+            this.grow();
+        }
+        int hash = StringTable.spread(str.hashCode());
+        int mask = this.index.length - 1;
+        int bucket = hash & mask;
+        int probe = 0;
+        this.lookups++;
+        while (this.index[bucket] != 0) {
+            int address = this.index[bucket] - 1;
+            if (this.hashes[address] == hash && str.equals(this.strings[address])) {
+                return address;
+            }
+            bucket = (bucket + 1) & mask;
+            probe++;
+            this.collisions++;
+        }
+        this.longestProbe = Math.max(this.longestProbe, probe);
+
+        int address = this.size++;
+        this.strings[address] = str;
+        this.hashes[address] = hash;
+        this.index[bucket] = address + 1;
+        return address;
+    }
+
+    /**
+     * Looks up the string at an address.
+     *   @param address the address returned by intern
+     *   @return the string stored at that address
+     */
+    public String lookup(int address) {
+        if (address < 0 || address >= this.size) {
+            throw new IndexOutOfBoundsException("Heap address " + address + " out of bounds for size " + this.size);
+        }
+        return this.strings[address];
+    }
+
+    /**
+     * Accesses the number of strings stored.
+     *   @return the number of distinct strings
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Accesses the number of buckets in the hash index.
+     *   @return the bucket count
+     */
+    public int buckets() {
+        return this.index.length;
+    }
+
+    /**
+     * Accesses the number of occupied buckets probed past (over all intern calls).
+     *   @return the collision count
+     */
+    public long collisions() {
+        return this.collisions;
+    }
+
+    /**
+     * Accesses the longest probe sequence needed to insert a string.
+     *   @return the longest probe length
+     */
+    public int longestProbe() {
+        return this.longestProbe;
+    }
+
+    /**
+     * Summarizes the table statistics.
+     *   @return a String with the size, load and collision figures
+     */
+    public String toString() {
+        return "strings=" + this.size + " buckets=" + this.index.length +
+               " load=" + String.format("%.2f", (double) this.size / this.index.length) +
+               " interns=" + this.lookups + " collisions=" + this.collisions +
+               " longestProbe=" + this.longestProbe;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Doubles the capacity and rebuilds the hash index (addresses are unchanged).
+     */
+    private void grow() {
+        this.strings = Arrays.copyOf(this.strings, 2 * this.strings.length);
+        this.hashes = Arrays.copyOf(this.hashes, 2 * this.hashes.length);
+        this.index = new int[2 * this.index.length];
+        int mask = this.index.length - 1;
+        for (int address = 0; address < this.size; address++) {
+            int bucket = this.hashes[address] & mask;
+            while (this.index[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            this.index[bucket] = address + 1;
+        }
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits used for buckets.
+     */
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
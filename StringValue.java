@@ -1,17 +1,34 @@
 /**
- * Class that represents a String value.
+ * Class that represents a String value.  Strings built by concatenation are
+ * kept as a Rope, and only stored in the heap (of the program that made them)
+ * when their text is needed.
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class StringValue implements DataValue {
-    private int address;
+    private StringTable heap;    // the heap the string is (or will be) stored in
+    private int address;     // heap address (-1 until the text is stored)
+    private Rope text;       // the unstored text (null once stored)
     
     /**
      * Constructs a String value.
      *   @param str the String being stored
+     *   @param heap the heap it is stored in
      */
-    public StringValue(String str) {
-    	this.address = Interpreter.MEMORY.heapStore(str);
+    public StringValue(String str, StringTable heap) {
+        this.heap = heap;
+    	this.address = heap.intern(str);
+    }
+
+    /**
+     * Constructs a String value that is not yet stored in the heap.
+     *   @param text the text of the string
+     *   @param heap the heap it will be stored in
+     */
+    private StringValue(Rope text, StringTable heap) {
+        this.heap = heap;
+        this.address = -1;
+        this.text = text;
     }
 
     /**
@@ -27,7 +44,47 @@ public class StringValue implements DataValue {
      *   @return the Boolean value (as an Object)
      */
     public Object getValue() {
-        return Interpreter.MEMORY.heapLookup(this.address);
+        if (this.address < 0) {
+            this.address = this.heap.intern(this.text.toString());
+            this.text = null;
+        }
+        return this.heap.lookup(this.address);
+    }
+
+    /**
+     * Accesses the number of characters in the string.
+     *   @return the string length
+     */
+    public int length() {
+        return this.rope().length();
+    }
+
+    /**
+     * Accesses a character in the string.
+     *   @param index the index of the character (starting at 0)
+     *   @return the character at that index
+     */
+    public char charAt(int index) {
+        return this.rope().charAt(index);
+    }
+
+    /**
+     * Creates the one-character string at an index (stored in the same heap).
+     *   @param index the index of the character (starting at 0)
+     *   @return the string holding that character
+     */
+    public StringValue charValue(int index) {
+        return new StringValue(String.valueOf(this.charAt(index)), this.heap);
+    }
+
+    /**
+     * Creates the concatenation of this string and another (without copying
+     * either or storing the result in the heap).
+     *   @param other the string whose characters follow this string's
+     *   @return the concatenated string
+     */
+    public StringValue concat(StringValue other) {
+        return new StringValue(this.rope().concat(other.rope()), this.heap);
     }
 
     /**
@@ -47,4 +104,30 @@ public class StringValue implements DataValue {
         return ((String)this.getValue()).compareTo((String)other.getValue());
     }
 
+    /**
+     * Determines whether another value is the same string.
+     *   @param other the value being compared with
+     *   @return true if it is a StringValue with the same text
+     */
+    public boolean equals(Object other) {
+        return other instanceof StringValue && this.getValue().equals(((StringValue) other).getValue());
+    }
+
+    /**
+     * Generates a hash code for the string value.
+     *   @return a hash code consistent with equals
+     */
+    public int hashCode() {
+        return this.getValue().hashCode();
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private Rope rope() {
+        if (this.text == null) {
+            return Rope.of(this.heap.lookup(this.address));
+        }
+        return this.text;
+    }
+
 }
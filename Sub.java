@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+
+/**
+ * Derived class that represents a subroutine definition in the SILLY language:
+ *     sub NAME (PARAM ...) STATEMENTS endsub
+ * Subroutines are defined at the top level, when the definition is resolved,
+ * and are run by call statements and expressions (see CallExpression).  Each
+ * call runs in a frame of its own, whose size is fixed by the Resolver: the
+ * parameters take the first slots (so arguments are passed by storing them
+ * there), then the subroutine's own name, a variable whose value when the
+ * statements finish is the value of the call, then the variables the
+ * statements declare.  The statements see those and the global variables.
+ * An exit statement ends the call (with the result assigned so far).
+ * A subroutine that prints nothing, uses no global variable and calls only
+ * such subroutines is pure: its result depends only on its arguments, so if
+ * memoization is turned on for it (see MemoCache), each running program
+ * caches its results.
+ */
+public class Sub extends Statement {
+    private Token name;
+    private ArrayList<Token> params;
+    private Body body;
+    private Statement[] stmts;    // the body statements (run in the frame itself)
+    private int frameSize;        // from the Resolver
+    private int number;
+    private boolean pure;
+    private boolean memoized;     // (pure, and memoization is turned on for it)
+
+    /**
+     * Reads in a subroutine definition from the specified stream.
+     *   @param input the stream to be read from
+     */
+    public Sub(TokenStream input) throws Exception {
+        if (input.next() != Token.SUB) {
+            throw new Exception("SYNTAX ERROR: Malformed sub statement");
+        }
+        this.name = input.next();
+        if (this.name.getType() != Token.Type.IDENTIFIER) {
+            throw new Exception("SYNTAX ERROR: Illegal subroutine name (" + this.name + ")");
+        }
+        if (input.next() != Token.LPAREN) {
+            throw new Exception("SYNTAX ERROR: Malformed sub statement (expecting '(')");
+        }
+        this.params = new ArrayList<Token>();
+        while (input.lookAhead() != Token.RPAREN) {
+            Token param = input.next();
+            if (param.getType() != Token.Type.IDENTIFIER) {
+                throw new Exception("SYNTAX ERROR: Illegal parameter name (" + param + ")");
+            }
+            this.params.add(param);
+        }
+        input.next();
+        ArrayList<Statement> stmts = new ArrayList<Statement>();
+        while (input.lookAhead() != Token.ENDSUB) {
+            stmts.add(Statement.getStatement(input));
+        }
+        this.body = new Body(stmts);
+        input.next();
+    }
+
+    /**
+     * Constructs a subroutine definition from its parts.
+     *   @param name the name of the subroutine
+     *   @param params the parameter names, in order
+     *   @param body the statements of the subroutine
+     */
+    public Sub(Token name, ArrayList<Token> params, Body body) {
+        this.name = name;
+        this.params = params;
+        this.body = body;
+    }
+
+    /**
+     * Defines the subroutine, and binds the parameters, the result and the
+     * variables in its statements to slots of its frame.
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        if (!scopes.isGlobal()) {
+            throw new Exception("SYNTAX ERROR: Subroutine '" + this.name + "' must be defined at the top level.");
+        }
+        this.number = scopes.defineSub(this);
+        scopes.beginScope();
+        try {
+            for (Token param : this.params) {
+                scopes.declare(param);
+            }
+            scopes.declare(this.name);
+            this.stmts = this.body.getStatements().toArray(new Statement[0]);
+            for (Statement s : this.stmts) {
+                s.resolve(scopes);
+            }
+            this.pure = true;
+            for (Statement s : this.stmts) {
+                this.pure = this.pure && this.isPure(s, 0);
+            }
+            this.memoized = this.pure && MemoCache.isRequested(this.name);
+        }
+        catch (Exception e) {
+            scopes.undefineSub(this);
+            throw e;
+        }
+        finally {
+            this.frameSize = scopes.endScope();
+        }
+    }
+
+    /**
+     * Executes the definition (which does nothing, as the subroutine was
+     * defined when it was resolved).
+     *   @param context the state of the running program
+     */
+    public Statement.Status execute(ExecutionContext context) {
+        return Statement.Status.OK;
+    }
+
+    /**
+     * Runs the subroutine on the arguments its caller pushed (see MemorySpace),
+     * unless it is memoized and its result for them is cached.
+     *   @param context the state of the running program
+     *   @return the value of the result variable (null if it was never assigned)
+     */
+    public DataValue invoke(ExecutionContext context) throws Exception {
+        if (!this.memoized) {
+            return this.run(context);
+        }
+        MemorySpace memory = context.getMemory();
+        MemoCache memo = context.getMemo(this, this.number);
+        Object key = MemoCache.key(memory, this.params.size());
+        DataValue result = memo.get(key);
+        if (result != null) {
+            memory.dropArguments(memory.argumentCount() - this.params.size());
+            return result;
+        }
+        result = this.run(context);
+        if (result != null) {
+            memo.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether the subroutine's result depends only on its arguments.
+     *   @return true if it prints nothing, uses no global variable and calls only pure subroutines
+     */
+    public boolean isPure() {
+        return this.pure;
+    }
+
+    /**
+     * Accesses the name of the subroutine.
+     *   @return the name token
+     */
+    public Token getName() {
+        return this.name;
+    }
+
+    /**
+     * Accesses the name of the subroutine the statement defines.
+     *   @return the name token
+     */
+    public Token definedSub() {
+        return this.name;
+    }
+
+    /**
+     * Accesses the parameter names.
+     *   @return the parameters, in order
+     */
+    public ArrayList<Token> getParameters() {
+        return this.params;
+    }
+
+    /**
+     * Accesses the statements of the subroutine.
+     *   @return the body
+     */
+    public Body getBody() {
+        return this.body;
+    }
+
+    /**
+     * Converts the current subroutine definition into a String.
+     *   @return the String representation of this statement
+     */
+    public String toString() {
+        String params = "";
+        for (Token param : this.params) {
+            params += " " + param;
+        }
+        return "sub " + this.name + " (" + params.trim() + ")" + Statement.indent("\n" + this.body) + "\nendsub";
+    }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private DataValue run(ExecutionContext context) throws Exception {
+        MemorySpace memory = context.getMemory();
+        int caller = memory.beginCall(this.frameSize, this.params.size());
+        try {
+            for (Statement s : this.stmts) {
+                if (s.execute(context) == Statement.Status.EXIT) {
+                    break;
+                }
+            }
+            return memory.lookupValue(0, this.params.size());
+        }
+        catch (StackOverflowError e) {
+            throw MemorySpace.tooDeep();
+        }
+        finally {
+            memory.endCall(caller);
+        }
+    }
+
+    /**
+     * Determines whether a (resolved) statement of the subroutine prints
+     * nothing, uses only the subroutine's variables (those at most level
+     * scopes out) and calls only pure subroutines.  Statements that are not
+     * looked into (e.g., profiled) are not pure.
+     */
+    private boolean isPure(Statement stmt, int level) {
+        if (stmt instanceof Var) {
+            return this.isPure(((Var) stmt).getAssignment(), level);
+        }
+        else if (stmt instanceof Assignment) {
+            Assignment assign = (Assignment) stmt;
+            return assign.getDepth() <= level && this.isPure(assign.getExpression(), level);
+        }
+        else if (stmt instanceof While) {
+            int inner = ((While) stmt).isScoped() ? level + 1 : level;
+            return this.isPure(((While) stmt).getTest(), inner) && this.isPure(((While) stmt).getBody(), inner);
+        }
+        else if (stmt instanceof Repeat) {
+            int inner = ((Repeat) stmt).isScoped() ? level + 1 : level;
+            return this.isPure(((Repeat) stmt).getCount(), inner) && this.isPure(((Repeat) stmt).getBody(), inner);
+        }
+        else if (stmt instanceof Call) {
+            return this.isPure(((Call) stmt).getCall(), level);
+        }
+        else if (stmt instanceof Break || stmt instanceof Exit) {
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isPure(Body body, int level) {
+        int inner = body.isScoped() ? level + 1 : level;
+        for (Statement s : body.getStatements()) {
+            if (!this.isPure(s, inner)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPure(Expression expr, int level) {
+        if (expr instanceof Literal) {
+            return true;
+        }
+        else if (expr instanceof Variable) {
+            return ((Variable) expr).getDepth() <= level;
+        }
+        else if (expr instanceof Invariant) {
+            return this.isPure(((Invariant) expr).getExpression(), level);    // (its temporary is local)
+        }
+        else if (expr instanceof UnaryExpression) {
+            return this.isPure(((UnaryExpression) expr).getOperand(), level);
+        }
+        else if (expr instanceof BinaryExpression) {
+            return this.isPure(((BinaryExpression) expr).getLhs(), level) &&
+                   this.isPure(((BinaryExpression) expr).getRhs(), level);
+        }
+        else if (expr instanceof ListLiteral) {
+            return this.arePure(((ListLiteral) expr).getItems(), level);
+        }
+        else if (expr instanceof CallExpression) {
+            Sub callee = ((CallExpression) expr).getSub();
+            return (callee == this || callee.isPure()) && this.arePure(((CallExpression) expr).getArguments(), level);
+        }
+        return false;
+    }
+
+    private boolean arePure(ArrayList<Expression> exprs, int level) {
+        for (Expression e : exprs) {
+            if (!this.isPure(e, level)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
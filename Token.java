@@ -1,4 +1,7 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -15,19 +18,107 @@ public class Token {
     private static List<String> stmtKeys =  Arrays.asList( "var", "print", "if", "while", "repeat", 
     		                                               "sub", "call", "exit", "break"             );
     private static List<String> otherKeys = Arrays.asList( "gets", "then", "elseif", "else", "endif", 
-    		                                               "do", "endwhile", "times", "endrepeat"     );
+    		                                               "do", "endwhile", "times", "endrepeat",
+    		                                               "endsub"                                   );
     
     public static enum Type { UNKNOWN, DELIM, UNARY_OP, BINARY_OP, STATEMENT, KEYWORD, 
     	                      IDENTIFIER, INT_LITERAL, BOO_LITERAL, STR_LITERAL }
     
-    private String strVal;
+    private static HashMap<String, Token> reserved = new HashMap<String, Token>();
+    private static Token[][] reservedByFirst = new Token[128][0];
+    static {
+        Token.reserve(Token.delims, Token.Type.DELIM);
+        Token.reserve(Token.unaryOps, Token.Type.UNARY_OP);
+        Token.reserve(Token.binaryOps, Token.Type.BINARY_OP);
+        Token.reserve(Token.booleans, Token.Type.BOO_LITERAL);
+        Token.reserve(Token.stmtKeys, Token.Type.STATEMENT);
+        Token.reserve(Token.otherKeys, Token.Type.KEYWORD);
+    }
+    
+    // shared instances of the reserved tokens (compare with ==)
+    public static final Token LPAREN = Token.of("("),     RPAREN = Token.of(")"), 
+                              LBRACKET = Token.of("["),   RBRACKET = Token.of("]");
+    public static final Token NOT = Token.of("!"),        LENGTH = Token.of("#");
+    public static final Token AND = Token.of("&"),        OR = Token.of("|"),
+                              PLUS = Token.of("+"),       STAR = Token.of("*"),
+                              SLASH = Token.of("/"),      PERCENT = Token.of("%"),
+                              CARET = Token.of("^"),      AT = Token.of("@"),
+                              EQUALS = Token.of("="),     NOT_EQUALS = Token.of("\\"),
+                              GREATER = Token.of(">"),    LESS = Token.of("<");
+    public static final Token TRUE = Token.of("true"),    FALSE = Token.of("false");
+    public static final Token VAR = Token.of("var"),      PRINT = Token.of("print"),
+                              IF = Token.of("if"),        WHILE = Token.of("while"),
+                              REPEAT = Token.of("repeat"), SUB = Token.of("sub"),
+                              CALL = Token.of("call"),    EXIT = Token.of("exit"),
+                              BREAK = Token.of("break");
+    public static final Token GETS = Token.of("gets"),    THEN = Token.of("then"),
+                              ELSEIF = Token.of("elseif"), ELSE = Token.of("else"),
+                              ENDIF = Token.of("endif"),  DO = Token.of("do"),
+                              ENDWHILE = Token.of("endwhile"), TIMES = Token.of("times"),
+                              ENDREPEAT = Token.of("endrepeat"), ENDSUB = Token.of("endsub");
+    
+    private String strVal;               // decoded lazily for tokens read from a buffer
+    private int hash;                    // computed lazily (from strVal)
+    private final Token.Type type;
+    private final ByteBuffer source;     // buffer the token was read from (or null)
+    private final int offset, length;    // location of the token text within source
+    private final int line, column;      // position in the program (0 if unknown)
     
     /**
-     * Constructs a token out of the given string.
-     *   @param str the string value of the token
+     * Constructs a token (classifying it once).
+     *   @param str the string value of the token (or null to decode it from source)
+     *   @param type the token type
+     *   @param source the buffer holding the token text
+     *   @param offset the index of the token text within source
+     *   @param length the number of bytes in the token text
+     *   @param line the line the token appears on
+     *   @param column the column the token starts in
      */
-    public Token(String str) {
+    private Token(String str, Token.Type type, ByteBuffer source, int offset, int length, int line, int column) {
         this.strVal = str;
+        this.type = type;
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.line = line;
+        this.column = column;
+    }
+    
+    /**
+     * Creates the token for the given string.  Delimiters, operators, keywords
+     * and boolean literals are shared instances, so they can be compared with ==.
+     *   @param str the string value of the token
+     *   @return the token
+     */
+    public static Token of(String str) {
+        Token shared = Token.reserved.get(str);
+        if (shared != null) {
+            return shared;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8));
+        return new Token(str, Token.classify(bytes, 0, bytes.limit()), bytes, 0, bytes.limit(), 0, 0);
+    }
+    
+    /**
+     * Creates the token for a span of UTF-8 text in a buffer, without copying it.
+     * Reserved tokens are the shared instances (and so carry no position).
+     *   @param source the buffer holding the program text
+     *   @param offset the index of the token text within source
+     *   @param length the number of bytes in the token text
+     *   @param line the line the token appears on
+     *   @param column the column the token starts in
+     *   @return the token
+     */
+    public static Token of(ByteBuffer source, int offset, int length, int line, int column) {
+        byte first = source.get(offset);
+        if (first >= 0) {
+            for (Token shared : Token.reservedByFirst[first]) {
+                if (shared.length == length && Token.sameBytes(shared.source, source, offset, length)) {
+                    return shared;
+                }
+            }
+        }
+        return new Token(null, Token.classify(source, offset, length), source, offset, length, line, column);
     }
     
     /**
@@ -35,42 +126,107 @@ public class Token {
      *   @return the token type (e.g., Token.Type.IDENTIFIER)
      */
     public Token.Type getType() {
-    	if (Token.delims.contains(this.strVal)) {
-            return Token.Type.DELIM;
-        }
-        else if (Token.stmtKeys.contains(this.strVal)) {
-            return Token.Type.STATEMENT;
+        return this.type;
+    }
+    
+    /**
+     * Determines when two tokens are identical.
+     *   @param other the other token being compared
+     *   @return whether the two tokens represent the same string value
+     */
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
         }
-        else if (Token.otherKeys.contains(this.strVal)) {
-            return Token.Type.KEYWORD;
+        Token tok = (Token)other;
+        return this.hashCode() == tok.hashCode() && this.toString().equals(tok.toString());
+    }
+   
+    /**
+     * Converts the token to its string representation.
+     *   @return the string representation
+     */
+    public String toString() {
+        if (this.strVal == null) {
+            byte[] bytes = new byte[this.length];
+            this.source.get(this.offset, bytes);
+            this.strVal = new String(bytes, StandardCharsets.UTF_8);
         }
-        else if (Token.unaryOps.contains(this.strVal)) {
-            return Token.Type.UNARY_OP;
+        return this.strVal;
+    }
+    
+    /**
+     * Accesses the line the token appears on.
+     *   @return the line number (0 for shared and constructed tokens)
+     */
+    public int getLine() {
+        return this.line;
+    }
+    
+    /**
+     * Accesses the column the token starts in.
+     *   @return the column number (0 for shared and constructed tokens)
+     */
+    public int getColumn() {
+        return this.column;
+    }
+    
+    /**
+     * Generates a hash code for a Token (based on its String hash code).
+     *   @return a hash code for the Token
+     */
+    public int hashCode() {
+    	if (this.hash == 0) {
+    	    this.hash = this.toString().hashCode();
+    	}
+    	return this.hash;
+    }
+    
+    /////////////////////////////////////////////////////////////////////////////////////////
+    
+    private static void reserve(List<String> strs, Token.Type type) {
+        for (String str : strs) {
+            byte[] bytes = str.getBytes(StandardCharsets.US_ASCII);
+            Token shared = new Token(str, type, ByteBuffer.wrap(bytes), 0, bytes.length, 0, 0);
+            Token.reserved.put(str, shared);
+            
+            Token[] sameFirst = Token.reservedByFirst[bytes[0]];
+            sameFirst = Arrays.copyOf(sameFirst, sameFirst.length + 1);
+            sameFirst[sameFirst.length - 1] = shared;
+            Token.reservedByFirst[bytes[0]] = sameFirst;
         }
-        else if (Token.binaryOps.contains(this.strVal)) {
-            return Token.Type.BINARY_OP;
+    }
+    
+    private static boolean sameBytes(ByteBuffer reservedText, ByteBuffer source, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (reservedText.get(i) != source.get(offset + i)) {
+                return false;
+            }
         }
-        else if (Token.booleans.contains(this.strVal)) {
-        	return Token.Type.BOO_LITERAL;
-        }     
-        else if (this.strVal.charAt(0) == '"') {
-            if (this.strVal.length() == 1 || this.strVal.charAt(this.strVal.length()-1) != '"') {
+        return true;
+    }
+    
+    private static Token.Type classify(ByteBuffer src, int offset, int length) {
+        byte first = src.get(offset);
+        if (first == '"') {
+            if (length == 1 || src.get(offset + length - 1) != '"') {
                 return Token.Type.UNKNOWN;
             }
             return Token.Type.STR_LITERAL;
         }
-        else if (Character.isDigit(this.strVal.charAt(0)) || 
-    	    (this.strVal.charAt(0) == '-' && this.strVal.length() > 1 && Character.isDigit(this.strVal.charAt(1)))) {
-            for (int i = 1; i < this.strVal.length(); i++) {
-                if (!Character.isDigit(this.strVal.charAt(i))) {
+        else if (Token.isDigit(first) || 
+    	    (first == '-' && length > 1 && Token.isDigit(src.get(offset + 1)))) {
+            for (int i = 1; i < length; i++) {
+                if (!Token.isDigit(src.get(offset + i))) {
                     return Token.Type.UNKNOWN;
                 }
             }
             return Token.Type.INT_LITERAL;
         }
-        else if (Character.isLetter(this.strVal.charAt(0))) {
-            for (int i = 1; i < this.strVal.length(); i++) {
-                if (!Character.isLetterOrDigit(this.strVal.charAt(i))) {
+        else if (Token.isLetter(first)) {
+            for (int i = 1; i < length; i++) {
+                byte b = src.get(offset + i);
+                if (!Token.isLetter(b) && !Token.isDigit(b)) {
                     return Token.Type.UNKNOWN;
                 }
             }
@@ -81,28 +237,11 @@ public class Token {
         }
     }
     
-    /**
-     * Determines when two tokens are identical.
-     *   @param other the other token being compared
-     *   @return whether the two tokens represent the same string value
-     */
-    public boolean equals(Object other) {
-        return this.strVal.equals(((Token)other).strVal);
-    }
-   
-    /**
-     * Converts the token to its string representation.
-     *   @return the string representation
-     */
-    public String toString() {
-        return this.strVal;
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
     }
     
-    /**
-     * Generates a hash code for a Token (based on its String hash code).
-     *   @return a hash code for the Token
-     */
-    public int hashCode() {
-    	return this.strVal.hashCode();
+    private static boolean isLetter(byte b) {
+        return b < 0 || Character.isLetter(b);   // bytes >= 0x80 are parts of UTF-8 letters
     }
 }
@@ -1,32 +1,64 @@
-import java.util.Scanner;
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
 
 /**
  * Class for reading SILLY language tokens from an input stream, either
- * standard input or from a file.
+ * standard input or from a file.  The program text is scanned in place in a
+ * byte buffer (memory-mapped for files), and tokens are views into it.
  *   @author Dave Reed
  *   @version 1/20/26
  */
 public class TokenStream {
-    private Scanner input;
+    private static final String SINGLES = "()[]!#&|+*/%^@=\\><";  // one-character tokens
+    private static boolean[] single = new boolean[128];
+    static {
+        for (int i = 0; i < SINGLES.length(); i++) {
+            TokenStream.single[SINGLES.charAt(i)] = true;
+        }
+    }
+
+    private BufferedReader input;   // standard input (null once exhausted or for files)
+    private ByteBuffer buffer;
+    private int pos;
+    private int line;
+    private int lineStart;
     private Token nextToken;
-    private String buffer;
+    private int nextLine;
+    private int nextColumn;
 
     /**
      * Constructs a TokenStream connected to System.in.
      */
     public TokenStream() {
-        this.input = new Scanner(System.in);
-        this.buffer = "";
+        this.input = new BufferedReader(new InputStreamReader(System.in));
+        this.buffer = ByteBuffer.allocate(0);
+        this.line = 1;
     }
-    
+
     /**
-     * Constructs a TokenStream connected to a file.
+     * Constructs a TokenStream connected to a file (which is memory-mapped).
      *   @param filename the file to read from
      */
-    public TokenStream(String filename) throws java.io.FileNotFoundException {
-        this.input = new Scanner(new File(filename));
-        this.buffer = "";
+    public TokenStream(String filename) throws IOException {
+        this(TokenStream.map(filename));
+    }
+
+    /**
+     * Constructs a TokenStream over program text already in memory.
+     *   @param source the UTF-8 program text (read from position to limit)
+     */
+    public TokenStream(ByteBuffer source) {
+        this.buffer = source;
+        this.pos = source.position();
+        this.lineStart = this.pos;
+        this.line = 1;
     }
 
     /**
@@ -34,39 +66,40 @@ public class TokenStream {
      *   @return the next token
      */
     public Token lookAhead() {
-    	if (this.nextToken == null) {    		
-            if (this.buffer.equals("") && this.input.hasNext()) {
-            	this.buffer = this.input.next().strip();
+    	if (this.nextToken == null) {
+            this.skipWhitespace();
+            if (this.pos >= this.buffer.limit()) {
+                throw new NoSuchElementException("SYNTAX ERROR: Unexpected end of input");
             }
-            
-            int index = 1;
-            Token first = new Token(this.buffer.substring(0,1));
-            if (first.getType() != Token.Type.DELIM &&
-            	    first.getType() != Token.Type.UNARY_OP &&	
-            		first.getType() != Token.Type.BINARY_OP) { 
-	            if (this.buffer.charAt(0) == '"') {
-	            	while (index < this.buffer.length() && this.buffer.charAt(index) != '"') {
-	            		index++;
-	            	}
-	            	index++;
-	            }
-	            else {
-	            	while (index < this.buffer.length()) {
-	            		Token last = new Token(this.buffer.substring(index,index+1));
-	            		if (last.getType() == Token.Type.DELIM ||
-	                    	    last.getType() == Token.Type.UNARY_OP ||	
-	                    		last.getType() == Token.Type.BINARY_OP) { 
-	            			break;
-	            		}
-	            		index++;
-	            	}
-	            }
+
+            int start = this.pos;
+            this.nextLine = this.line;
+            this.nextColumn = start - this.lineStart + 1;
+            byte ch = this.buffer.get(this.pos++);
+            if (!TokenStream.isSingle(ch)) {
+                if (ch == '"') {
+                    while (this.pos < this.buffer.limit() && (ch = this.buffer.get(this.pos++)) != '"') {
+                        if (ch == '\n') {
+                            this.line++;
+                            this.lineStart = this.pos;
+                        }
+                    }
+                }
+                else {
+                    while (this.pos < this.buffer.limit()) {
+                        ch = this.buffer.get(this.pos);
+                        if (TokenStream.isSingle(ch) || TokenStream.isSpace(ch)) {
+                            break;
+                        }
+                        this.pos++;
+                    }
+                }
             }
-            this.nextToken = new Token(this.buffer.substring(0, index));
+            this.nextToken = Token.of(this.buffer, start, this.pos - start, this.nextLine, this.nextColumn);
         }
         return this.nextToken;
     }
-    
+
     /**
      * Returns the next token in the TokenStream (and removes it).
      *   @return the next token
@@ -74,15 +107,84 @@ public class TokenStream {
     public Token next() {
         Token safe = this.lookAhead();
         this.nextToken = null;
-        this.buffer = this.buffer.substring(safe.toString().length()).strip();
         return safe;
      }
-     
+
      /**
       * Determines whether there are any more tokens to read.
       *   @return true if tokens remaining, else false
       */
      public boolean hasNext() {
-        return (this.nextToken != null || !this.buffer.equals("") || this.input.hasNext());
+        if (this.nextToken != null) {
+            return true;
+        }
+        this.skipWhitespace();
+        return this.pos < this.buffer.limit();
+     }
+
+     /**
+      * Accesses the line of the most recently read token.
+      *   @return the line number (starting at 1)
+      */
+     public int getLine() {
+        return this.nextLine;
+     }
+
+     /**
+      * Accesses the column of the most recently read token.
+      *   @return the column number (starting at 1)
+      */
+     public int getColumn() {
+        return this.nextColumn;
+     }
+
+     /////////////////////////////////////////////////////////////////////////////
+
+     /**
+      * Advances past whitespace, reading another line from standard input
+      * when the buffer runs out.
+      */
+     private void skipWhitespace() {
+        while (true) {
+            while (this.pos < this.buffer.limit() && TokenStream.isSpace(this.buffer.get(this.pos))) {
+                if (this.buffer.get(this.pos) == '\n') {
+                    this.line++;
+                    this.lineStart = this.pos + 1;
+                }
+                this.pos++;
+            }
+            if (this.pos < this.buffer.limit() || this.input == null) {
+                return;
+            }
+
+            String text;
+            try {
+                text = this.input.readLine();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (text == null) {
+                this.input = null;
+                return;
+            }
+            this.buffer = ByteBuffer.wrap((text + "\n").getBytes(StandardCharsets.UTF_8));
+            this.pos = 0;
+            this.lineStart = 0;
+        }
+     }
+
+     private static boolean isSingle(byte ch) {
+        return ch >= 0 && TokenStream.single[ch];
+     }
+
+     private static boolean isSpace(byte ch) {
+        return ch == ' ' || ch == '\n' || ch == '\t' || ch == '\r' || ch == '\f' || ch == 0x0B;
+     }
+
+     private static ByteBuffer map(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename))) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
      }
 }
@@ -0,0 +1,57 @@
+/**
+ * Abstract class for representing a unary operator expression, e.g., (! x), in the SILLY language.
+ */
+public abstract class UnaryExpression extends Expression {
+    protected Token op;
+    protected Expression operand;
+
+    /**
+     * Constructs a unary expression.
+     *   @param op the operator
+     *   @param operand the operand expression
+     */
+    public UnaryExpression(Token op, Expression operand) {
+        this.op = op;
+        this.operand = operand;
+    }
+
+    /**
+     * Binds the variables in the operand to frame slots.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.operand.resolve(scopes);
+    }
+
+    /**
+     * Accesses the (preallocated) error reported when the operand has the wrong type.
+     *   @return the type mismatch error
+     */
+    protected static RuntimeError mismatch() {
+        return RuntimeError.UNARY_MISMATCH;
+    }
+
+    /**
+     * Accesses the operand.
+     *   @return the operand expression
+     */
+    public Expression getOperand() {
+        return this.operand;
+    }
+
+    /**
+     * Accesses the operator.
+     *   @return the operator token
+     */
+    public Token getOperator() {
+        return this.op;
+    }
+
+    /**
+     * Converts the current expression into a String.
+     *   @return the String representation of this expression
+     */
+    public String toString() {
+        return "(" + this.op + " " + this.operand + ")";
+    }
+}
@@ -13,7 +13,7 @@ public class Var extends Statement {
      *   @param input the stream to be read from
      */
     public Var(TokenStream input) throws Exception {
-        if (!input.next().toString().equals("var")) {
+        if (input.next() != Token.VAR) {
             throw new Exception(
                 "SYNTAX ERROR: Illegal variable declaration (must begin with 'var')."
             );
@@ -21,23 +21,49 @@ public class Var extends Statement {
         this.vbl = input.lookAhead();
         this.assign = new Assignment(input);
     }
+
     /**
-     * Executes the current variable declaration+assignment statement.
+     * Constructs a variable declaration+assignment from its assignment.
+     *   @param assign the assignment that initializes the variable
      */
-    public Statement.Status execute() throws Exception {
-        boolean isLocal = Interpreter.MEMORY.isLocal(this.vbl);
+    public Var(Assignment assign) {
+        this.vbl = assign.getVariable();
+        this.assign = assign;
+    }
 
-        if (isLocal) {
-            throw new Exception(
-                "SYNTAX ERROR: Variable '" + this.vbl + "' is already declared."
-            );
-        } else {
-            Interpreter.MEMORY.declareVariable(this.vbl);
-            this.assign.execute();
-        }
+    /**
+     * Declares the variable in the current scope and resolves the assignment.
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        scopes.declare(this.vbl);
+        this.assign.resolve(scopes);
+    }
 
-        return Statement.Status.OK;
+    /**
+     * Notes that the statement declares a variable.
+     *   @return true
+     */
+    public boolean declares() {
+        return true;
     }
+
+    /**
+     * Executes the current variable declaration+assignment statement.
+     *   @param context the state of the running program
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        return this.assign.execute(context);
+    }
+
+    /**
+     * Accesses the assignment that initializes the variable.
+     *   @return the assignment
+     */
+    public Assignment getAssignment() {
+        return this.assign;
+    }
+
     /**
      * Converts the current variable declaration+assignment statement into a String.
      *   @return the String representation of this statement
@@ -0,0 +1,71 @@
+/**
+ * Derived class that represents a variable reference in the SILLY language.
+ */
+public class Variable extends Expression {
+    private Token tok;
+    private int depth; // from the Resolver
+    private int slot;
+
+    /**
+     * Constructs a variable reference.
+     *   @param tok the variable name
+     */
+    public Variable(Token tok) {
+        this.tok = tok;
+    }
+
+    /**
+     * Binds the variable to a frame slot.
+     *   @param scopes the scopes visible to this expression
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        this.depth = scopes.depthOf(this.tok);
+        if (this.depth < 0) {
+            throw new Exception(
+                "RUNTIME ERROR: variable " + this.tok + " is undeclared"
+            );
+        }
+        this.slot = scopes.slotOf(this.tok, this.depth);
+    }
+
+    /**
+     * Looks up the variable's current value.
+     *   @param context the state of the running program
+     *   @return the value stored in the variable
+     */
+    public DataValue evaluate(ExecutionContext context) {
+        return context.getMemory().lookupValue(this.depth, this.slot);
+    }
+
+    /**
+     * Accesses the variable token.
+     *   @return the token
+     */
+    public Token getToken() {
+        return this.tok;
+    }
+
+    /**
+     * Accesses the scope depth of the variable.
+     *   @return the depth (from the Resolver)
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Accesses the frame slot of the variable.
+     *   @return the slot (from the Resolver)
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    /**
+     * Converts the variable reference into a String.
+     *   @return the variable name
+     */
+    public String toString() {
+        return this.tok.toString();
+    }
+}
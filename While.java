@@ -8,47 +8,120 @@ import java.util.ArrayList;
 public class While extends Statement {
     private Expression expr;
     private Body body; 
+    private Invariant[] invariants;  // hoisted from the loop by the Optimizer
+    private int frameSize;           // of the loop's own scope (which only a loop with invariants has)
+    private int number;           // from the Resolver, to find the loop's LoopCompiler.Profile
     
     /**
      * Reads in a while statement from the specified stream.
      *   @param input the stream to be read from
      */
     public While(TokenStream input) throws Exception {
-        if (!input.next().toString().equals("while")) {
+        if (input.next() != Token.WHILE) {
             throw new Exception("SYNTAX ERROR: Malformed while statement");
         }
-        this.expr = new Expression(input);  
-        if (!input.next().toString().equals("do")) {
+        this.expr = Expression.getExpression(input);  
+        if (input.next() != Token.DO) {
             throw new Exception("SYNTAX ERROR: Malformed while statement");
         }
         ArrayList<Statement> stmts = new ArrayList<Statement>();
-        while (!input.lookAhead().toString().equals("endwhile")) {
+        while (input.lookAhead() != Token.ENDWHILE) {
         	stmts.add(Statement.getStatement(input));
         }
         this.body = new Body(stmts);
+        this.invariants = new Invariant[0];
         input.next();
     }
 
     /**
-     * Executes the current while statement.
+     * Constructs a while statement from its parts.
+     *   @param expr the loop test
+     *   @param body the loop body
      */
-    public Statement.Status execute() throws Exception {
-        while (true) {
-        	DataValue eVal = this.expr.evaluate();
-        	if (eVal.getType() != DataValue.Type.BOOLEAN) {
-        		throw new Exception("RUNTIME ERROR: while statement requires Boolean test.");
-        	}
-            if ((Boolean)eVal.getValue()) {
-        		body.execute();
+    public While(Expression expr, Body body) {
+        this(expr, body, new Invariant[0]);
+    }
+
+    /**
+     * Constructs a while statement whose loop-invariant expressions have been hoisted.
+     *   @param expr the loop test
+     *   @param body the loop body
+     *   @param invariants the hoisted expressions (whose temporaries the loop declares and clears)
+     */
+    public While(Expression expr, Body body, Invariant[] invariants) {
+        this.expr = expr;
+        this.body = body;
+        this.invariants = invariants;
+    }
+
+    /**
+     * Binds the variables in the test and body to frame slots.  A loop with
+     * hoisted expressions declares their temporaries in a scope of its own,
+     * which the test and body are resolved in (and run in, each time the loop
+     * starts, so the temporaries start out cleared).
+     *   @param scopes the scopes visible to this statement
+     */
+    public void resolve(Resolver scopes) throws Exception {
+        if (!this.isScoped()) {
+            this.resolveLoop(scopes);
+            return;
+        }
+
+        scopes.beginScope();
+        try {
+            for (Invariant inv : this.invariants) {
+                inv.declare(scopes);
             }
-            else {
-            	break;
-            }   
+            this.resolveLoop(scopes);
+        }
+        finally {
+            this.frameSize = scopes.endScope();
+        }
+    }
+
+    /**
+     * Executes the current while statement (until the test fails, or the body breaks or exits).
+     *   @param context the state of the running program
+     *   @return EXIT if the body exited, else OK
+     */
+    public Statement.Status execute(ExecutionContext context) throws Exception {
+        if (!this.isScoped()) {
+            return this.run(context);
+        }
+
+        context.getMemory().beginScope(this.frameSize);
+        try {
+            return this.run(context);
+        }
+        finally {
+            context.getMemory().endScope();
         }
-        
-        return Statement.Status.OK;
     }
     
+    /**
+     * Accesses the loop test.
+     *   @return the test expression
+     */
+    public Expression getTest() {
+        return this.expr;
+    }
+
+    /**
+     * Accesses the loop body.
+     *   @return the body
+     */
+    public Body getBody() {
+        return this.body;
+    }
+
+    /**
+     * Determines whether the loop runs in a scope of its own (outside its body's).
+     *   @return true if the loop has hoisted expressions, else false
+     */
+    public boolean isScoped() {
+        return this.invariants.length > 0;
+    }
+
     /**
      * Converts the current while statement into a String.
      *   @return the String representation of this statement
@@ -56,4 +129,46 @@ public class While extends Statement {
     public String toString() {
         return "while " + this.expr + " do" + Statement.indent("\n"+this.body) + "\nendwhile";
     }
+
+    /////////////////////////////////////////////////////////////////////////////
+
+    private void resolveLoop(Resolver scopes) throws Exception {
+        this.expr.resolve(scopes);
+        this.number = scopes.beginLoop();
+        try {
+            this.body.resolve(scopes);
+        }
+        finally {
+            scopes.endLoop();
+        }
+    }
+
+    private Statement.Status run(ExecutionContext context) throws Exception {
+        LoopCompiler.Profile profile = context.getLoop(this.number);
+        CompiledLoop compiled = profile.enter(this, context);
+        if (compiled != null && compiled.run(context, 0) < 0) {
+            return Statement.Status.OK;
+        }
+        
+        while (this.holds(context)) {
+            Statement.Status status = body.execute(context);
+            if (status != Statement.Status.OK) {
+                return status == Statement.Status.EXIT ? status : Statement.Status.OK;
+            }
+            compiled = profile.loop(this, context);
+            if (compiled != null && compiled.run(context, 0) < 0) {
+                break;
+            }
+        }
+        
+        return Statement.Status.OK;
+    }
+
+    private boolean holds(ExecutionContext context) throws Exception {
+        DataValue val = this.expr.evaluate(context);
+        if (val.getType() != DataValue.Type.BOOLEAN) {
+            throw RuntimeError.WHILE_TEST;
+        }
+        return val.asBoolean();
+    }
 }
@@ -0,0 +1,70 @@
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Measures the bytes allocated per loop iteration by the tree-walking
+ * interpreter (loop compilation is turned off so the interpreter itself is
+ * measured).  Counters that stay within the IntegerValue cache should not
+ * allocate; raise -Dsilly.intcache to cover larger counters.
+ *   usage: java -cp .:bench AllocationBenchmark
+ */
+public class AllocationBenchmark {
+    private static final int ITERATIONS = 1000;
+    private static final OutputSink OUTPUT = OutputSink.standard(OutputSink.Flush.LINE);
+
+    private static final String[][] PROGRAMS = {
+        { "while counter",
+          "var i gets 0 " +
+          "while (i < " + ITERATIONS + ") do i gets (i + 1) endwhile" },
+        { "repeat counter",
+          "var i gets 0 " +
+          "repeat " + ITERATIONS + " times i gets (i + 1) endrepeat" },
+        { "while arithmetic",
+          "var i gets 0 var t gets 0 " +
+          "while ((i < " + ITERATIONS + ") & (t > -1)) do t gets ((t + (i * 3)) % 997) i gets (i + 1) endwhile" },
+        { "while with local",
+          "var i gets 0 " +
+          "while (i < " + ITERATIONS + ") do var j gets (i % 100) i gets (i + 1) endwhile" },
+    };
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("silly.jit", "0");
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (String[] program : PROGRAMS) {
+            ArrayList<Statement> stmts = AllocationBenchmark.parse(program[1]);
+            for (int warmup = 0; warmup < 20000; warmup++) {
+                AllocationBenchmark.run(stmts);
+            }
+
+            int runs = 1000;
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int run = 0; run < runs; run++) {
+                AllocationBenchmark.run(stmts);
+            }
+            long bytes = threads.getThreadAllocatedBytes(thread) - before;
+            System.out.printf("%-18s %8.2f bytes/iteration%n", program[0], (double) bytes / runs / ITERATIONS);
+        }
+    }
+
+    private static ArrayList<Statement> parse(String program) throws Exception {
+        TokenStream input = new TokenStream(ByteBuffer.wrap(program.getBytes(StandardCharsets.UTF_8)));
+        ArrayList<Statement> stmts = new ArrayList<Statement>();
+        while (input.hasNext()) {
+            stmts.add(Statement.getStatement(input));
+        }
+        return stmts;
+    }
+
+    private static void run(ArrayList<Statement> stmts) throws Exception {
+        ExecutionContext context = new ExecutionContext(AllocationBenchmark.OUTPUT);
+        for (Statement stmt : stmts) {
+            stmt.resolve(context.getScopes());
+            stmt.execute(context);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH CallBenchmark) that defines a subroutine in a fresh
+ * execution context and then calls it, returning the final value of t.
+ */
+public class CallWorkload implements Callable<Object> {
+    private static final String[] PROGRAMS = {
+        "sub fib (n) fib gets n var go gets (n > 1) " +
+        "while go do fib gets (call fib ((n + -1)) + call fib ((n + -2))) go gets false endwhile endsub " +
+        "var t gets call fib (15)",
+        "sub step (a b) step gets ((a + b) % 997) endsub " +
+        "var t gets 0 var i gets 0 " +
+        "while (i < 1000) do t gets call step (t (i * 3)) i gets (i + 1) endwhile",
+    };
+
+    private ArrayList<Statement> stmts;
+
+    /**
+     * Constructs the workload.
+     *   @param program the index of the program to run (0: recursive fib(15),
+     *                  1: a two-argument subroutine called 1000 times in a loop)
+     */
+    public CallWorkload(String program) throws Exception {
+        String text = CallWorkload.PROGRAMS[Integer.parseInt(program)];
+        TokenStream input = new TokenStream(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        this.stmts = new ArrayList<Statement>();
+        while (input.hasNext()) {
+            this.stmts.add(Statement.getStatement(input));
+        }
+    }
+
+    /**
+     * Runs the program.
+     *   @return the final value of t
+     */
+    public Object call() throws Exception {
+        ExecutionContext context = new ExecutionContext(OutputSink.standard(OutputSink.Flush.LINE));
+        for (Statement stmt : this.stmts) {
+            stmt.resolve(context.getScopes());
+            stmt.execute(context);
+        }
+        return context.getMemory().lookupValue(0, 0);
+    }
+}
@@ -0,0 +1,43 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH EvaluateBenchmark) that evaluates one expression, with
+ * x, s and l declared as an integer, a string and a five-item list.
+ */
+public class EvaluateWorkload implements Callable<Object> {
+    private static final String DECLARATIONS =
+        "var x gets 12345 var s gets \"hello world\" var l gets [1 2 3 4 5]";
+
+    private Expression expr;
+    private ExecutionContext context;
+
+    /**
+     * Constructs the workload (in a fresh execution context).
+     *   @param expression the SILLY expression to evaluate
+     */
+    public EvaluateWorkload(String expression) throws Exception {
+        this.context = new ExecutionContext(OutputSink.standard(OutputSink.Flush.LINE));
+        TokenStream input = EvaluateWorkload.tokens(DECLARATIONS);
+        while (input.hasNext()) {
+            Statement stmt = Statement.getStatement(input);
+            stmt.resolve(this.context.getScopes());
+            stmt.execute(this.context);
+        }
+        this.expr = Expression.getExpression(EvaluateWorkload.tokens(expression));
+        this.expr.resolve(this.context.getScopes());
+    }
+
+    /**
+     * Evaluates the expression.
+     *   @return its value
+     */
+    public Object call() throws Exception {
+        return this.expr.evaluate(this.context);
+    }
+
+    private static TokenStream tokens(String text) {
+        return new TokenStream(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
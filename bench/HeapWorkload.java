@@ -0,0 +1,49 @@
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH MemorySpaceBenchmark) that stores strings in the heap:
+ * either a string already among the given number stored ("stored"), or all
+ * of them into a new, empty heap ("fill", so the heap grows as it goes).
+ */
+public class HeapWorkload implements Callable<Object> {
+    private String[] strings;
+    private boolean fill;
+    private MemorySpace memory;
+    private int next;
+    private int sum;        // consumes the addresses (so nothing is boxed)
+
+    /**
+     * Constructs the workload.
+     *   @param strings the number of distinct strings
+     *   @param mode "stored" or "fill"
+     */
+    public HeapWorkload(String strings, String mode) {
+        this.strings = new String[Integer.parseInt(strings)];
+        for (int i = 0; i < this.strings.length; i++) {
+            this.strings[i] = "string number " + i;
+        }
+        this.fill = mode.equals("fill");
+        this.memory = new MemorySpace();
+        for (String str : this.strings) {
+            this.memory.heapStore(str);
+        }
+    }
+
+    /**
+     * Stores one string, or fills a new heap.
+     *   @return this workload
+     */
+    public Object call() {
+        if (this.fill) {
+            MemorySpace empty = new MemorySpace();
+            for (String str : this.strings) {
+                this.sum += empty.heapStore(str);
+            }
+        }
+        else {
+            this.sum += this.memory.heapStore(this.strings[this.next]);
+            this.next = (this.next + 1) % this.strings.length;
+        }
+        return this;
+    }
+}
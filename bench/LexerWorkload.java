@@ -0,0 +1,43 @@
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH LexerBenchmark) that reads every token of a generated
+ * program (the same text the ParserWorkload parses), either from an in-memory
+ * buffer or from a memory-mapped temporary file.
+ */
+public class LexerWorkload implements Callable<Object> {
+    private byte[] program;
+    private Path file;            // the program file (or null to read the buffer)
+
+    /**
+     * Constructs the workload.
+     *   @param kilobytes the size of the generated program
+     *   @param source where the tokens are read from ("buffer" or "mapped")
+     */
+    public LexerWorkload(String kilobytes, String source) throws Exception {
+        this.program = ParserWorkload.generate(Integer.parseInt(kilobytes) * 1024);
+        if (source.equals("mapped")) {
+            this.file = Files.createTempFile("lexer", ".sil");
+            this.file.toFile().deleteOnExit();
+            Files.write(this.file, this.program);
+        }
+    }
+
+    /**
+     * Reads the program's tokens.
+     *   @return the number of tokens read
+     */
+    public Object call() throws Exception {
+        TokenStream input = this.file == null ? new TokenStream(ByteBuffer.wrap(this.program))
+                                              : new TokenStream(this.file.toString());
+        int count = 0;
+        while (input.hasNext()) {
+            input.next();
+            count++;
+        }
+        return count;
+    }
+}
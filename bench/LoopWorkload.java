@@ -0,0 +1,48 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH ArithmeticBenchmark) that runs a small integer loop
+ * program in a fresh execution context, and returns the final value of t.
+ */
+public class LoopWorkload implements Callable<Object> {
+    private static final String[] PROGRAMS = {
+        "var i gets 0 var t gets 0 " +
+        "while (i < 1000) do t gets ((t + (i * 3)) % 997) i gets (i + 1) endwhile",
+        "var i gets 0 var t gets 1 " +
+        "repeat 1000 times t gets (((t * 31) + i) % 1000003) i gets (i + 1) endrepeat",
+        "var i gets 0 var t gets 0 " +
+        "while (i < 1000) do t gets (t + (i ^ 3)) i gets (i + 1) endwhile",
+    };
+
+    private ArrayList<Statement> stmts;
+
+    /**
+     * Constructs the workload.
+     *   @param program the index of the program to run (0: while loop with * and %,
+     *                  1: repeat loop with * and %, 2: while loop with ^)
+     */
+    public LoopWorkload(String program) throws Exception {
+        String text = LoopWorkload.PROGRAMS[Integer.parseInt(program)];
+        TokenStream input = new TokenStream(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        this.stmts = new ArrayList<Statement>();
+        while (input.hasNext()) {
+            this.stmts.add(Statement.getStatement(input));
+        }
+    }
+
+    /**
+     * Runs the program.
+     *   @return the final value of t
+     */
+    public Object call() throws Exception {
+        ExecutionContext context = new ExecutionContext(OutputSink.standard(OutputSink.Flush.LINE));
+        for (Statement stmt : this.stmts) {
+            stmt.resolve(context.getScopes());
+            stmt.execute(context);
+        }
+        return context.getMemory().lookupValue(0, 1);
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH MemorySpaceBenchmark) that looks up a variable
+ * declared a given number of scopes out from the current one.
+ */
+public class MemoryWorkload implements Callable<Object> {
+    private MemorySpace memory;
+    private int depth;
+
+    /**
+     * Constructs the workload.
+     *   @param depth the number of scopes between the current scope and the variable's
+     */
+    public MemoryWorkload(String depth) {
+        this.depth = Integer.parseInt(depth);
+        this.memory = new MemorySpace();
+        for (int i = 0; i <= this.depth; i++) {
+            this.memory.beginScope(4);
+            this.memory.storeValue(0, 2, IntegerValue.valueOf(i));
+        }
+    }
+
+    /**
+     * Looks up the variable.
+     *   @return its value
+     */
+    public Object call() {
+        return this.memory.lookupValue(this.depth, 2);
+    }
+}
@@ -0,0 +1,92 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+/**
+ * Workload (for the JMH ParserBenchmark) that parses every statement of a
+ * generated program with Statement.getStatement, or (as baselines) with the
+ * old reflective path or by decoding the program's ProgramCache encoding.
+ */
+public class ParserWorkload implements Callable<Object> {
+    private static final String CHUNK =
+        "var total gets 0\n" +
+        "var items gets [1 2 3 \"four five\" true]\n" +
+        "total gets ((total + (items @ 0)) * 2)\n" +
+        "print (\"total is \" + total)\n" +
+        "while ((total < 100) & ((# items) > 0)) do\n" +
+        "  total gets (total + 1)\n" +
+        "endwhile\n" +
+        "repeat 3 times print total endrepeat\n";
+
+    private byte[] program;
+    private String front;
+    private byte[] cached;        // the ProgramCache encoding (for "cached")
+
+    /**
+     * Constructs the workload.
+     *   @param kilobytes the size of the generated program
+     *   @param front how the program is read ("parser", "reflective" or "cached")
+     */
+    public ParserWorkload(String kilobytes, String front) throws Exception {
+        this.program = ParserWorkload.generate(Integer.parseInt(kilobytes) * 1024);
+        this.front = front;
+        if (front.equals("cached")) {
+            this.cached = ProgramCache.encode(new Parser(new TokenStream(ByteBuffer.wrap(this.program))).parseProgram());
+        }
+    }
+
+    /**
+     * Parses the program.
+     *   @return the number of statements parsed
+     */
+    public Object call() throws Exception {
+        if (this.front.equals("cached")) {
+            return ProgramCache.decode(ByteBuffer.wrap(this.cached)).size();
+        }
+        TokenStream input = new TokenStream(ByteBuffer.wrap(this.program));
+        if (this.front.equals("reflective")) {
+            return ParserWorkload.parseReflectively(input);
+        }
+        int count = 0;
+        while (input.hasNext()) {
+            Statement.getStatement(input);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Parses a program the way the interpreter once did, looking up each
+     * statement class by name and calling its constructor reflectively.
+     *   @param input the program's tokens
+     *   @return the number of statements parsed
+     */
+    private static int parseReflectively(TokenStream input) throws Exception {
+        ArrayList<Statement> program = new ArrayList<Statement>();   // kept, as the Parser does
+        while (input.hasNext()) {
+            Token first = input.lookAhead();
+            if (first.getType() == Token.Type.STATEMENT) {
+                String className = first.toString().substring(0, 1).toUpperCase() + first.toString().substring(1);
+                program.add((Statement) Class.forName(className).getConstructor(TokenStream.class).newInstance(input));
+            }
+            else {
+                program.add(new Assignment(input));
+            }
+        }
+        return program.size();
+    }
+
+    /**
+     * Generates a program by repeating a chunk of typical statements.
+     *   @param size the (minimum) size of the program in bytes
+     *   @return the UTF-8 program text
+     */
+    public static byte[] generate(int size) {
+        StringBuilder program = new StringBuilder(size + CHUNK.length());
+        while (program.length() < size) {
+            program.append(CHUNK);
+        }
+        return program.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
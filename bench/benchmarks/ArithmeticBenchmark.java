@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 1000-iteration integer loops whose values all fit in a long (so no
+ * BigIntegerValue is ever made), run by the tree-walking interpreter and by
+ * the LoopCompiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ArithmeticBenchmark {
+    @Param({"0", "1", "2"})
+    public String program;
+
+    private Callable<Object> workload;
+
+    @Setup
+    public void setup() throws Exception {
+        this.workload = Workloads.create("LoopWorkload", this.program);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dsilly.jit=0")
+    public Object interpreted() throws Exception {
+        return this.workload.call();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Object compiled() throws Exception {
+        return this.workload.call();
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Subroutine calls: a recursive fib(15) (about 2000 calls, up to 15 deep),
+ * and 1000 calls of a two-argument subroutine from a loop, each also with
+ * memoization turned on (both subroutines are pure).  Run with -prof gc to
+ * see that the calls themselves allocate nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallBenchmark {
+    @Param({"0", "1"})
+    public String program;
+
+    private Callable<Object> workload;
+
+    @Setup
+    public void setup() throws Exception {
+        this.workload = Workloads.create("CallWorkload", this.program);
+    }
+
+    @Benchmark
+    public Object calls() throws Exception {
+        return this.workload.call();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dsilly.memoize=all")
+    public Object memoized() throws Exception {
+        return this.workload.call();
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Expression.evaluate for the arithmetic, string and list operators (x holds
+ * an integer, s a string and l a five-item list).  (x ^ 5) is the one result
+ * too large for a long.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluateBenchmark {
+    @Param({"((x + 3) * (x % 7))", "(x * x)", "(x ^ 3)", "(x ^ 5)", "(x < 100)",
+            "((x < 100) & ((l @ 2) = 3))", "((x > 100) | ((l @ 2) = 3))",
+            "(s + s)", "(s @ 2)", "(# s)", "(l + l)", "(l @ 2)", "(# l)", "[x s l]"})
+    public String expression;
+
+    private Callable<Object> workload;
+
+    @Setup
+    public void setup() throws Exception {
+        this.workload = Workloads.create("EvaluateWorkload", this.expression);
+    }
+
+    @Benchmark
+    public Object evaluate() throws Exception {
+        return this.workload.call();
+    }
+}
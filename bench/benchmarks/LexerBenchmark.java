@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TokenStream throughput: the time to read every token of a generated program,
+ * from an in-memory buffer and from a memory-mapped file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+    @Param({"64", "1024"})
+    public String kilobytes;
+
+    private Callable<Object> buffer, mapped;
+
+    @Setup
+    public void setup() throws Exception {
+        this.buffer = Workloads.create("LexerWorkload", this.kilobytes, "buffer");
+        this.mapped = Workloads.create("LexerWorkload", this.kilobytes, "mapped");
+    }
+
+    @Benchmark
+    public Object tokenize() throws Exception {
+        return this.buffer.call();
+    }
+
+    @Benchmark
+    public Object tokenizeMapped() throws Exception {
+        return this.mapped.call();
+    }
+}
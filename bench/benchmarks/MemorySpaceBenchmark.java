@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MemorySpace variable lookup, for variables declared at different depths out
+ * from the current scope, and heapStore into heaps of different sizes (of a
+ * string already stored, and filling a new heap to that size).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemorySpaceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Lookup {
+        @Param({"0", "1", "4", "16"})
+        public String depth;
+
+        private Callable<Object> workload;
+
+        @Setup
+        public void setup() throws Exception {
+            this.workload = Workloads.create("MemoryWorkload", this.depth);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Heap {
+        @Param({"1000", "100000"})
+        public String strings;
+
+        private Callable<Object> stored, fill;
+
+        @Setup
+        public void setup() throws Exception {
+            this.stored = Workloads.create("HeapWorkload", this.strings, "stored");
+            this.fill = Workloads.create("HeapWorkload", this.strings, "fill");
+        }
+    }
+
+    @Benchmark
+    public Object lookup(Lookup state) throws Exception {
+        return state.workload.call();
+    }
+
+    @Benchmark
+    public Object heapStoreStored(Heap state) throws Exception {
+        return state.stored.call();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object heapStoreFill(Heap state) throws Exception {
+        return state.fill.call();
+    }
+}
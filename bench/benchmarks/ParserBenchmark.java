@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Statement.getStatement parse rate: the time to parse every statement of a
+ * generated program, against two baselines: the old reflective path (which
+ * looked up each statement class by name and called its constructor
+ * reflectively), and decoding the same program from its ProgramCache encoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    @Param({"64", "1024"})
+    public String kilobytes;
+
+    private Callable<Object> parser, reflective, cached;
+
+    @Setup
+    public void setup() throws Exception {
+        this.parser = Workloads.create("ParserWorkload", this.kilobytes, "parser");
+        this.reflective = Workloads.create("ParserWorkload", this.kilobytes, "reflective");
+        this.cached = Workloads.create("ParserWorkload", this.kilobytes, "cached");
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return this.parser.call();
+    }
+
+    @Benchmark
+    public Object parseReflectively() throws Exception {
+        return this.reflective.call();
+    }
+
+    @Benchmark
+    public Object decodeCached() throws Exception {
+        return this.cached.call();
+    }
+}
@@ -0,0 +1,22 @@
+package benchmarks;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Creates the (default package) workload classes that the benchmarks drive.
+ */
+public class Workloads {
+
+    /**
+     * Constructs a workload by class name.
+     *   @param className the workload class (in the default package)
+     *   @param args the constructor arguments (all Strings)
+     *   @return the workload
+     */
+    @SuppressWarnings("unchecked")
+    public static Callable<Object> create(String className, String... args) throws Exception {
+        Class<?>[] types = new Class<?>[args.length];
+        java.util.Arrays.fill(types, String.class);
+        return (Callable<Object>) Class.forName(className).getConstructor(types).newInstance((Object[]) args);
+    }
+}
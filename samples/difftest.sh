@@ -0,0 +1,34 @@
+#!/bin/sh
+# Runs each sample program (samples/*.sil) as usual, then with the loop
+# compiler turned off (-Dsilly.jit=0), unoptimized (-Dsilly.optimize=false)
+# and profiled (-profile), and reports the programs whose output differs
+# (only standard output is compared, since the profile and the memoization
+# statistics go to standard error).  Build first with "mvn compile"; the
+# classes are taken from target/classes unless another class path is given.
+# Other JVM settings (e.g., -Dsilly.memoize=all) can be passed in JAVA_OPTS.
+#   usage: samples/difftest.sh [classpath]
+
+dir=$(dirname "$0")
+classes=${1:-$dir/../target/classes}
+tmp=$(mktemp -d) || exit 2
+trap 'rm -rf "$tmp"' EXIT
+
+failed=0
+for program in "$dir"/*.sil; do
+    echo "$program" | java $JAVA_OPTS -cp "$classes" Interpreter 2> /dev/null > "$tmp/expected"
+    same=1
+    for mode in -Dsilly.jit=0 -Dsilly.optimize=false -profile; do
+        case $mode in
+            -D*) echo "$program" | java $JAVA_OPTS $mode -cp "$classes" Interpreter 2> /dev/null > "$tmp/actual" ;;
+            *)   echo "$program" | java $JAVA_OPTS -cp "$classes" Interpreter $mode 2> /dev/null > "$tmp/actual" ;;
+        esac
+        if ! diff "$tmp/expected" "$tmp/actual" > "$tmp/diff"; then
+            echo "DIFFERENT ($mode): $program"
+            cat "$tmp/diff"
+            same=0
+            failed=1
+        fi
+    done
+    [ $same = 1 ] && echo "same: $program"
+done
+exit $failed